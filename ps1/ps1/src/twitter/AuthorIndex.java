@@ -0,0 +1,124 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Index from each author in a TweetStore to the ordinals of that author's
+ * tweets, in timestamp order.
+ *
+ * Authors are numbered by a SymbolTable, so finding an author's tweets is
+ * one hash probe followed by a copy of that author's slice. The index follows
+ * the store as it grows: tweets appended to the store since the last query are
+ * indexed at the start of the next one. Each new tweet is inserted from the
+ * back of its author's slice, which costs O(1) when tweets arrive roughly in
+ * time order.
+ *
+ * An index is not thread-safe, and must not be queried concurrently with
+ * appends to its store.
+ */
+public class AuthorIndex {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final TweetStore store;
+    private final SymbolTable users = new SymbolTable();
+    private int[][] postings = new int[16][];
+    private int[] sizes = new int[16];
+    private int indexed;
+    // Abstraction function:
+    //   represents the map from each username users.name(a) to the ordinals
+    //   postings[a][0..sizes[a]) of its tweets among store[0..indexed)
+    // Rep invariant:
+    //   0 <= indexed <= store.size()
+    //   users holds exactly the authors of store[0..indexed), ignoring case
+    //   postings.length == sizes.length >= users.size()
+    //   each ordinal in 0..indexed appears in exactly the slice of its author
+    //   each slice is strictly increasing by (timestamp, ordinal)
+    // Safety from rep exposure:
+    //   all fields are private; slices are copied before being returned;
+    //   store is shared with the client by design, who may only append to it
+
+    /**
+     * Make an index over a store, including tweets appended to it later.
+     *
+     * @param store store of tweets to index
+     */
+    public AuthorIndex(TweetStore store) {
+        this.store = store;
+        catchUp();
+    }
+
+    /*
+     * Index the tweets appended to the store since the last call.
+     */
+    private void catchUp() {
+        for (; indexed < store.size(); indexed++) {
+            final int ordinal = indexed;
+            final Instant timestamp = store.get(ordinal).getTimestamp();
+            final int author = users.intern(store.get(ordinal).getAuthor());
+            if (author == postings.length) {
+                postings = Arrays.copyOf(postings, 2 * author);
+                sizes = Arrays.copyOf(sizes, 2 * author);
+            }
+            int[] slice = postings[author];
+            if (slice == null) {
+                slice = postings[author] = new int[INITIAL_CAPACITY];
+            } else if (sizes[author] == slice.length) {
+                slice = postings[author] = Arrays.copyOf(slice, 2 * slice.length);
+            }
+            // ordinal is the largest so far, so only a strictly later timestamp
+            // may precede it
+            int i = sizes[author]++;
+            while (i > 0 && store.get(slice[i - 1]).getTimestamp().isAfter(timestamp)) {
+                slice[i] = slice[i - 1];
+                i--;
+            }
+            slice[i] = ordinal;
+        }
+    }
+
+    /**
+     * Find the tweets written by a user.
+     *
+     * @param username Twitter username
+     * @return the ordinals of all and only the stored tweets whose author is
+     *         username, ignoring case, in timestamp order; tweets with equal
+     *         timestamps are in ordinal order
+     */
+    public int[] writtenBy(String username) {
+        catchUp();
+        final int author = users.find(username);
+        return author < 0 ? new int[0] : Arrays.copyOf(postings[author], sizes[author]);
+    }
+
+    /**
+     * @param username Twitter username
+     * @return the number of stored tweets whose author is username, ignoring case
+     */
+    public int count(String username) {
+        catchUp();
+        final int author = users.find(username);
+        return author < 0 ? 0 : sizes[author];
+    }
+
+    /**
+     * @return number of distinct authors in the store, ignoring case
+     */
+    public int authorCount() {
+        catchUp();
+        return users.size();
+    }
+
+    /**
+     * @param ordinals ordinals of tweets in the indexed store
+     * @return the tweets with those ordinals, in the same order
+     */
+    public List<Tweet> tweetsAt(int[] ordinals) {
+        return store.tweetsAt(ordinals);
+    }
+}
@@ -0,0 +1,147 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Mutable view of a range of UTF-8 or Latin-1 bytes as a CharSequence, with
+ * each byte zero-extended to a char.
+ *
+ * ASCII characters come out as themselves, and every byte of any other UTF-8
+ * character as a char in [0x80, 0xff], which no scanner in this package
+ * treats as a letter, digit, space or "@". So MentionScanner and
+ * WordTokenizer find the same mentions and words in a view of a tweet's
+ * UTF-8 bytes as in its decoded text, only at byte offsets.
+ *
+ * Both check for a ByteText and search it for "@" and " " with indexOf,
+ * which tests 8 bytes at a time with SWAR (SIMD within a register)
+ * arithmetic on longs, and only the last few bytes one at a time. Mentions
+ * and word boundaries are found without decoding or copying the bytes, and
+ * text without an "@" is skipped at a fraction of a cycle per byte.
+ *
+ * The view can be moved to another range of the same bytes, so one view can
+ * serve a whole arena or archive. A view is not thread-safe.
+ */
+public class ByteText implements CharSequence {
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW_SEVEN_BITS = 0x7f7f7f7f7f7f7f7fL;
+
+    private final ByteBuffer bytes;
+    private int start;
+    private int end;
+    // Abstraction function:
+    //   represents the chars (char) (bytes.get(i) & 0xff) for start <= i < end
+    // Rep invariant:
+    //   0 <= start <= end <= bytes.limit()
+    //   bytes is little-endian
+    // Safety from rep exposure:
+    //   bytes is a private duplicate; the underlying bytes are only read
+
+    /**
+     * Make a view of all of an array of bytes.
+     *
+     * @param bytes bytes to view; not copied, and must not change while viewed
+     */
+    public ByteText(byte[] bytes) {
+        this(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Make a view of the bytes of a buffer, from 0 to its limit, such as a
+     * memory-mapped file.
+     *
+     * @param buffer bytes to view; not copied, and must not change while
+     *               viewed; its position, limit and order are not modified
+     */
+    public ByteText(ByteBuffer buffer) {
+        this.bytes = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        this.bytes.clear();
+        this.end = bytes.limit();
+    }
+
+    /**
+     * Move the view to a range of its bytes.
+     *
+     * @param start index of the first byte, counting from the start of the
+     *              array or buffer
+     * @param end index one past the last byte
+     * @return this view, now of bytes [start, end)
+     * @throws IndexOutOfBoundsException if the range is not within the bytes
+     */
+    public ByteText range(int start, int end) {
+        if (start < 0 || start > end || end > bytes.limit()) {
+            throw new IndexOutOfBoundsException("range [" + start + ", " + end + ") of " + bytes.limit());
+        }
+        this.start = start;
+        this.end = end;
+        return this;
+    }
+
+    @Override public int length() {
+        return end - start;
+    }
+
+    @Override public char charAt(int index) {
+        if (index < 0 || index >= end - start) {
+            throw new IndexOutOfBoundsException("index " + index + " of " + (end - start));
+        }
+        return (char) (bytes.get(start + index) & 0xff);
+    }
+
+    /**
+     * Find a byte in the view.
+     *
+     * @param target byte to find
+     * @param from index in the view to start at
+     * @param to index in the view to stop before, requires from <= to <= length()
+     * @return the least index in [from, to) of target, or to if none
+     */
+    public int indexOf(byte target, int from, int to) {
+        final long pattern = ONES * (target & 0xff);
+        int i = start + from;
+        final int limit = start + to;
+        for (; i + 8 <= limit; i += 8) {
+            final long matches = zeroBytes(bytes.getLong(i) ^ pattern);
+            if (matches != 0) {
+                // little-endian: the first byte is the lowest
+                return i + (Long.numberOfTrailingZeros(matches) >>> 3) - start;
+            }
+        }
+        for (; i < limit; i++) {
+            if (bytes.get(i) == target) {
+                return i - start;
+            }
+        }
+        return to;
+    }
+
+    /*
+     * @return a word with the high bit of each byte set iff that byte of word
+     *         is zero, and every other bit clear; exact for every byte, since
+     *         no carry crosses a byte boundary
+     */
+    private static long zeroBytes(long word) {
+        final long nonzero = ((word & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | word;
+        return ~(nonzero | LOW_SEVEN_BITS);
+    }
+
+    @Override public CharSequence subSequence(int from, int to) {
+        return toString().substring(from, to);
+    }
+
+    /**
+     * @return the viewed bytes as chars, as a String
+     */
+    @Override public String toString() {
+        final byte[] copy = new byte[end - start];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = bytes.get(start + i);
+        }
+        return new String(copy, StandardCharsets.ISO_8859_1);
+    }
+}
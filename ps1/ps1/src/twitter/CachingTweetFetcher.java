@@ -0,0 +1,211 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Fetches tweets from a web server through an on-disk HTTP cache.
+ *
+ * Each URL's last response body is cached, decompressed, along with its ETag
+ * and Last-Modified validators. Later fetches of the same URL send them as
+ * If-None-Match and If-Modified-Since, so an unchanged response costs a 304
+ * and is parsed from disk. Responses are requested gzip-compressed and are
+ * parsed as they stream in, while being copied to the cache.
+ *
+ * A fetcher may be shared by threads fetching different URLs.
+ */
+public class CachingTweetFetcher {
+
+    private static final String ETAG = "ETag";
+    private static final String LAST_MODIFIED = "Last-Modified";
+
+    private final Path cacheDirectory;
+    // Rep invariant:
+    //   cacheDirectory exists
+    //   for every cached URL, <key>.json is the decoded body of its last 200
+    //   response and <key>.properties holds that response's validators
+
+    /**
+     * Make a fetcher.
+     *
+     * @param cacheDirectory directory to keep cached responses in; created if
+     *                       it doesn't exist
+     * @throws IOException if the directory can't be created
+     */
+    public CachingTweetFetcher(Path cacheDirectory) throws IOException {
+        this.cacheDirectory = Files.createDirectories(cacheDirectory);
+    }
+
+    /**
+     * Get a list of tweets from a web server, revalidating any cached copy.
+     *
+     * @param url URL of server to retrieve tweets from
+     * @return a list of tweets retrieved from the server, or from the cache if
+     *         the server reports they haven't changed
+     * @throws IOException if the url is invalid, the server is unreachable or
+     *                     answers with an error, or some other
+     *                     network-related error occurs.
+     */
+    public List<Tweet> readTweetsFromWeb(URL url) throws IOException {
+        final URLConnection connection = url.openConnection();
+        if (!(connection instanceof HttpURLConnection)) {
+            try (InputStream in = connection.getInputStream()) {
+                return readTweets(in);
+            }
+        }
+        final HttpURLConnection http = (HttpURLConnection) connection;
+        final String key = cacheKey(url);
+        final Path body = cacheDirectory.resolve(key + ".json");
+        final Path validators = cacheDirectory.resolve(key + ".properties");
+
+        final Properties cached = new Properties();
+        if (Files.exists(body) && Files.exists(validators)) {
+            try (InputStream in = Files.newInputStream(validators)) {
+                cached.load(in);
+            }
+            if (cached.getProperty(ETAG) != null) {
+                http.setRequestProperty("If-None-Match", cached.getProperty(ETAG));
+            }
+            if (cached.getProperty(LAST_MODIFIED) != null) {
+                http.setRequestProperty("If-Modified-Since", cached.getProperty(LAST_MODIFIED));
+            }
+        }
+        http.setRequestProperty("Accept-Encoding", "gzip");
+
+        try {
+            final int status = http.getResponseCode();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED && !cached.isEmpty()) {
+                try (InputStream in = Files.newInputStream(body)) {
+                    return readTweets(in);
+                }
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new IOException("server answered " + status + " for " + url);
+            }
+
+            final Path partial = Files.createTempFile(cacheDirectory, key, ".part");
+            try {
+                final List<Tweet> tweets;
+                try (InputStream in = decoded(http);
+                        OutputStream copy = Files.newOutputStream(partial);
+                        InputStream tee = new TeeInputStream(in, copy)) {
+                    tweets = readTweets(tee);
+                }
+                final Properties fresh = new Properties();
+                if (http.getHeaderField(ETAG) != null) {
+                    fresh.setProperty(ETAG, http.getHeaderField(ETAG));
+                }
+                if (http.getHeaderField(LAST_MODIFIED) != null) {
+                    fresh.setProperty(LAST_MODIFIED, http.getHeaderField(LAST_MODIFIED));
+                }
+                Files.deleteIfExists(validators);
+                Files.move(partial, body, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                if (!fresh.isEmpty()) {
+                    try (OutputStream out = Files.newOutputStream(validators)) {
+                        fresh.store(out, url.toString());
+                    }
+                }
+                return tweets;
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+        } finally {
+            http.disconnect();
+        }
+    }
+
+    /*
+     * @return the response body of http, gunzipped if it was sent compressed
+     */
+    private static InputStream decoded(HttpURLConnection http) throws IOException {
+        final InputStream in = http.getInputStream();
+        return "gzip".equalsIgnoreCase(http.getContentEncoding()) ? new GZIPInputStream(in) : in;
+    }
+
+    /*
+     * Parse a JSON array of tweets as it streams in, reading the stream to its end.
+     */
+    private static List<Tweet> readTweets(InputStream in) throws IOException {
+        final Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        final List<Tweet> tweets = new ArrayList<Tweet>();
+        final TweetStreamReader parser = new TweetStreamReader(reader);
+        parser.forEachRemaining(tweets::add);
+        final char[] rest = new char[4096];
+        while (reader.read(rest) >= 0) {
+            // drain trailing whitespace so a teed copy is complete
+        }
+        return tweets;
+    }
+
+    /*
+     * @return a file-name-safe key for url
+     */
+    private static String cacheKey(URL url) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(url.toString().getBytes(StandardCharsets.UTF_8));
+            final StringBuilder key = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                key.append(String.format("%02x", digest[i]));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException nsae) {
+            throw new AssertionError("SHA-256 is required of every Java platform", nsae);
+        }
+    }
+
+    /*
+     * Input stream that copies everything read through it to an output stream.
+     */
+    private static class TeeInputStream extends FilterInputStream {
+        private final OutputStream copy;
+
+        TeeInputStream(InputStream in, OutputStream copy) {
+            super(in);
+            this.copy = copy;
+        }
+
+        @Override public int read() throws IOException {
+            final int b = super.read();
+            if (b >= 0) {
+                copy.write(b);
+            }
+            return b;
+        }
+
+        @Override public int read(byte[] bytes, int offset, int length) throws IOException {
+            final int count = super.read(bytes, offset, length);
+            if (count > 0) {
+                copy.write(bytes, offset, count);
+            }
+            return count;
+        }
+
+        @Override public long skip(long n) throws IOException {
+            // skipped bytes must still reach the copy
+            final byte[] skipped = new byte[(int) Math.min(n, 4096)];
+            final int count = read(skipped, 0, skipped.length);
+            return Math.max(count, 0);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.time.Duration;
+
+/**
+ * Mutable filter that passes each tweet id once within a sliding time window,
+ * in fixed memory.
+ *
+ * The window is divided into equal time buckets by tweet timestamp, and the
+ * ids of the tweets in each bucket are kept in a LongHashSet of fixed
+ * capacity. When a tweet later than the window arrives, the buckets that fall
+ * out of the window are cleared and reused. If a bucket fills up, it is
+ * cleared and starts over, so under overload some duplicates within that
+ * bucket get through instead of memory growing.
+ *
+ * Overlapping polls of a sample server return the same recent tweets, which
+ * this filter removes before they are counted twice. A filter is not
+ * thread-safe.
+ */
+public class ExpiringIdFilter {
+
+    private final long bucketMillis;
+    private final LongHashSet[] buckets;
+    private long current = Long.MIN_VALUE;
+    // Abstraction function:
+    //   represents the set of ids of tweets accepted so far whose time
+    //   buckets are among the last buckets.length up to current, less any
+    //   forgotten when their bucket overflowed, where time
+    //   bucket b covers [b * bucketMillis, (b + 1) * bucketMillis) epoch millis
+    // Rep invariant:
+    //   buckets.length >= 1; buckets[floorMod(b, buckets.length)] holds ids
+    //   of live time bucket b, and buckets of dead time buckets are empty
+    // Safety from rep exposure:
+    //   all fields are private; the sets are never returned
+
+    /**
+     * Make a filter.
+     *
+     * @param window span of tweet time over which duplicates are caught, at
+     *               least buckets milliseconds
+     * @param buckets number of time buckets the window is divided into, >= 1
+     * @param capacityPerBucket number of ids each bucket can hold, > 0
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public ExpiringIdFilter(Duration window, int buckets, int capacityPerBucket) {
+        if (buckets < 1 || window.toMillis() < buckets) {
+            throw new IllegalArgumentException("window " + window + " can't hold " + buckets + " buckets");
+        }
+        this.bucketMillis = window.toMillis() / buckets;
+        this.buckets = new LongHashSet[buckets];
+        for (int i = 0; i < buckets; i++) {
+            this.buckets[i] = new LongHashSet(capacityPerBucket);
+        }
+    }
+
+    /**
+     * Decide whether a tweet is new.
+     *
+     * @param tweet a tweet
+     * @return false if a tweet with the same id was accepted within the
+     *         window, true otherwise; a tweet older than the window is checked
+     *         against the window but not remembered
+     */
+    public boolean accept(Tweet tweet) {
+        final long id = tweet.getId();
+        final long bucket = Math.floorDiv(tweet.getTimestamp().toEpochMilli(), bucketMillis);
+        advance(bucket);
+        for (LongHashSet ids : buckets) {
+            if (ids.contains(id)) {
+                return false;
+            }
+        }
+        if (bucket <= current - buckets.length) {
+            return true;
+        }
+        final LongHashSet ids = buckets[slotOf(bucket)];
+        if (ids.isFull()) {
+            ids.clear();
+        }
+        ids.add(id);
+        return true;
+    }
+
+    /*
+     * Make bucket the last bucket of the window, if it is later than current.
+     */
+    private void advance(long bucket) {
+        if (bucket <= current) {
+            return;
+        }
+        if (current == Long.MIN_VALUE || bucket - current >= buckets.length) {
+            for (LongHashSet ids : buckets) {
+                ids.clear();
+            }
+        } else {
+            for (long b = current + 1; b <= bucket; b++) {
+                buckets[slotOf(b)].clear();
+            }
+        }
+        current = bucket;
+    }
+
+    private int slotOf(long bucket) {
+        return (int) Math.floorMod(bucket, (long) buckets.length);
+    }
+}
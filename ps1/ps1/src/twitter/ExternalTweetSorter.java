@@ -0,0 +1,310 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts streams of tweets by timestamp that are too large to hold in memory.
+ *
+ * Tweets are read into memory until their estimated size reaches half the
+ * memory budget, the other half being left for encoding them. The batch is
+ * then sorted and spilled as one run, a TweetArchive in a temporary file.
+ * The sorted Timeline reads every run back through its memory-mapped
+ * archive, k-way merging them with a heap of one cursor per run. Only one
+ * decoded tweet per run is on the heap at a time. Input that fits in a
+ * single run is never spilled.
+ *
+ * The sort is stable: tweets with equal timestamps come out in input order.
+ * Spilled tweets have their timestamps truncated to the millisecond, as in
+ * every TweetArchive.
+ */
+public class ExternalTweetSorter {
+
+    private static final Comparator<Tweet> BY_TIMESTAMP = Comparator.comparing(Tweet::getTimestamp);
+
+    private final long memoryBudget;
+    private final Path directory;
+    // Rep invariant:
+    //   memoryBudget > 0
+    // Safety from rep exposure:
+    //   all fields are private, final and immutable
+
+    /**
+     * Make a sorter.
+     *
+     * @param memoryBudget approximate number of bytes of heap a sort may use
+     *                     for tweets, > 0
+     * @param directory directory for the temporary run files
+     * @throws IllegalArgumentException if memoryBudget is not positive
+     */
+    public ExternalTweetSorter(long memoryBudget, Path directory) {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("memory budget must be positive: " + memoryBudget);
+        }
+        this.memoryBudget = memoryBudget;
+        this.directory = directory;
+    }
+
+    /**
+     * Estimate the heap used by a tweet, counting its Tweet, Instant and
+     * Strings with their UTF-16 arrays.
+     *
+     * @param tweet a tweet
+     * @return estimated size of tweet in bytes
+     */
+    public static long estimateBytes(Tweet tweet) {
+        return 32 + 24 + 2 * (40 + 16) + 2L * (tweet.getAuthor().length() + tweet.getText().length());
+    }
+
+    /**
+     * Sort tweets by timestamp.
+     *
+     * @param tweets tweets to sort, consumed by this method
+     * @return a timeline of the tweets in timestamp order, which must be
+     *         closed to delete its run files
+     * @throws IOException if a run file can't be written, in which case any
+     *                     written are deleted
+     */
+    public Timeline sort(Iterator<Tweet> tweets) throws IOException {
+        final List<Path> files = new ArrayList<Path>();
+        final List<Tweet> batch = new ArrayList<Tweet>();
+        long batchBytes = 0;
+        long size = 0;
+        Instant start = null;
+        Instant end = null;
+        try {
+            while (tweets.hasNext()) {
+                final Tweet tweet = tweets.next();
+                final Instant timestamp = tweet.getTimestamp();
+                if (start == null || timestamp.isBefore(start)) {
+                    start = timestamp;
+                }
+                if (end == null || timestamp.isAfter(end)) {
+                    end = timestamp;
+                }
+                batch.add(tweet);
+                batchBytes += estimateBytes(tweet);
+                size++;
+                if (batchBytes >= memoryBudget / 2) {
+                    files.add(spill(batch));
+                    batch.clear();
+                    batchBytes = 0;
+                }
+            }
+            if (files.isEmpty()) {
+                Collections.sort(batch, BY_TIMESTAMP);
+            } else if (!batch.isEmpty()) {
+                files.add(spill(batch));
+                batch.clear();
+            }
+            final List<TweetArchive> runs = new ArrayList<TweetArchive>();
+            for (Path file : files) {
+                runs.add(TweetArchive.open(file));
+            }
+            final Timespan timespan = start == null ? null : new Timespan(start, end);
+            return new Timeline(runs, new ArrayList<Tweet>(batch), files, size, timespan);
+        } catch (IOException | RuntimeException e) {
+            try {
+                deleteAll(files);
+            } catch (IOException ioe) {
+                e.addSuppressed(ioe);
+            }
+            throw e;
+        }
+    }
+
+    /*
+     * Sort a batch and write it to a new run file, which is deleted again if
+     * it can't be written.
+     */
+    private Path spill(List<Tweet> batch) throws IOException {
+        Collections.sort(batch, BY_TIMESTAMP);
+        final Path file = Files.createTempFile(directory, "tweets-run-", ".twa");
+        try {
+            TweetArchive.write(batch, file);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ioe) {
+                e.addSuppressed(ioe);
+            }
+            throw e;
+        }
+        return file;
+    }
+
+    /*
+     * Delete files, as far as possible.
+     *
+     * @throws IOException the first failure, after trying every file
+     */
+    private static void deleteAll(List<Path> files) throws IOException {
+        IOException failure = null;
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ioe) {
+                if (failure == null) {
+                    failure = ioe;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * The result of a sort: tweets in timestamp order, read back from sorted
+     * runs on demand.
+     */
+    public static class Timeline implements Iterable<Tweet>, Closeable {
+        private final List<TweetArchive> runs;
+        private final List<Tweet> memoryRun;
+        private final List<Path> files;
+        private final long size;
+        private final Timespan timespan;
+        private boolean closed;
+        // Abstraction function:
+        //   represents the stable merge by timestamp of runs, in order,
+        //   followed by memoryRun
+        // Rep invariant:
+        //   each run and memoryRun is sorted by timestamp
+        //   size == sum of the sizes of runs and memoryRun
+        //   timespan is null iff size == 0, and is otherwise the minimal
+        //   timespan of the tweets as they were given to sort
+        //   runs are the archives in files
+        // Safety from rep exposure:
+        //   all fields are private; iterators are read-only
+
+        private Timeline(List<TweetArchive> runs, List<Tweet> memoryRun, List<Path> files, long size,
+                Timespan timespan) {
+            this.runs = runs;
+            this.memoryRun = memoryRun;
+            this.files = files;
+            this.size = size;
+            this.timespan = timespan;
+        }
+
+        /**
+         * @return number of tweets in the timeline
+         */
+        public long size() {
+            return size;
+        }
+
+        /**
+         * @return number of runs spilled to disk
+         */
+        public int runs() {
+            return runs.size();
+        }
+
+        /**
+         * Get the time period spanned by the tweets, in O(1) time.
+         *
+         * @return a minimum-length time interval that contains the timestamp
+         *         of every tweet as it was given to sort. Requires size() > 0.
+         */
+        public Timespan getTimespan() {
+            if (timespan == null) {
+                throw new IllegalStateException("requires a nonempty timeline");
+            }
+            return timespan;
+        }
+
+        /**
+         * @return an iterator over the tweets in timestamp order, ties in the
+         *         order they were given to sort; each call merges the runs
+         *         afresh
+         * @throws IllegalStateException if the timeline is closed
+         */
+        @Override public Iterator<Tweet> iterator() {
+            if (closed) {
+                throw new IllegalStateException("timeline is closed");
+            }
+            final List<Iterator<Tweet>> cursors = new ArrayList<Iterator<Tweet>>();
+            for (TweetArchive run : runs) {
+                cursors.add(run.iterator());
+            }
+            cursors.add(memoryRun.iterator());
+            return new Merge(cursors);
+        }
+
+        /**
+         * Delete the run files. The timeline can't be iterated afterward.
+         *
+         * @throws IOException if a run file can't be deleted
+         */
+        @Override public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                deleteAll(files);
+            }
+        }
+    }
+
+    /*
+     * Stable k-way merge of sorted iterators, with a heap of their current
+     * heads ordered by (timestamp, index of iterator).
+     */
+    private static class Merge implements Iterator<Tweet> {
+        private final List<Iterator<Tweet>> cursors;
+        private final PriorityQueue<Head> heads;
+
+        Merge(List<Iterator<Tweet>> cursors) {
+            this.cursors = cursors;
+            this.heads = new PriorityQueue<Head>(Math.max(1, cursors.size()));
+            for (int i = 0; i < cursors.size(); i++) {
+                advance(i);
+            }
+        }
+
+        private void advance(int cursor) {
+            if (cursors.get(cursor).hasNext()) {
+                heads.add(new Head(cursors.get(cursor).next(), cursor));
+            }
+        }
+
+        @Override public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override public Tweet next() {
+            final Head head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            advance(head.cursor);
+            return head.tweet;
+        }
+    }
+
+    private static class Head implements Comparable<Head> {
+        private final Tweet tweet;
+        private final int cursor;
+
+        Head(Tweet tweet, int cursor) {
+            this.tweet = tweet;
+            this.cursor = cursor;
+        }
+
+        @Override public int compareTo(Head that) {
+            final int byTime = tweet.getTimestamp().compareTo(that.tweet.getTimestamp());
+            return byTime != 0 ? byTime : Integer.compare(cursor, that.cursor);
+        }
+    }
+}
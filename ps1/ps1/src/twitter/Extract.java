@@ -5,8 +5,6 @@ package twitter;
 
 import java.time.Instant;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Extract consists of methods that extract information from a list of tweets.
@@ -26,12 +24,57 @@ public class Extract {
      *         every tweet in the list.
      */
     public static Timespan getTimespan(List<Tweet> tweets) {
-        List<Tweet> sortedTweets = new ArrayList<Tweet>(tweets);
-        Collections.sort(sortedTweets, getCompByTimestamp());
-        // end Instant has to be after start Instant in order for Timespan to be valid
-        Timespan timespan = new Timespan(sortedTweets.get(0).getTimestamp(),
-                sortedTweets.get(sortedTweets.size()-1).getTimestamp());
-        return timespan;
+        Instant start = tweets.get(0).getTimestamp();
+        Instant end = start;
+        for (Tweet tweet : tweets) {
+            Instant timestamp = tweet.getTimestamp();
+            if (timestamp.isBefore(start)) {
+                start = timestamp;
+            } else if (timestamp.isAfter(end)) {
+                end = timestamp;
+            }
+        }
+        return new Timespan(start, end);
+    }
+
+    /**
+     * Get the time period spanned by stored tweets, in constant time.
+     * 
+     * @param store
+     *            nonempty store of tweets with distinct ids, not modified by
+     *            this method.
+     * @return a minimum-length time interval that contains the timestamp of
+     *         every tweet in the store.
+     */
+    public static Timespan getTimespan(TweetStore store) {
+        return store.getTimespan();
+    }
+
+    /**
+     * Get the time period spanned by the tweets in an arena, without making a
+     * Tweet for each.
+     * 
+     * @param arena
+     *            nonempty arena of tweets with distinct ids, not modified by
+     *            this method.
+     * @return a minimum-length time interval that contains the timestamp of
+     *         every tweet in the arena.
+     */
+    public static Timespan getTimespan(TweetArena arena) {
+        return arena.getTimespan();
+    }
+
+    /**
+     * Get the time period spanned by a sorted timeline, in constant time.
+     * 
+     * @param timeline
+     *            nonempty timeline of tweets with distinct ids, not modified
+     *            by this method.
+     * @return a minimum-length time interval that contains the timestamp of
+     *         every tweet in the timeline.
+     */
+    public static Timespan getTimespan(ExternalTweetSorter.Timeline timeline) {
+        return timeline.getTimespan();
     }
 
     /**
@@ -50,33 +93,127 @@ public class Extract {
      *         include a username at most once.
      */
     public static Set<String> getMentionedUsers(List<Tweet> tweets) {
+        SymbolTable users = new SymbolTable();
+        getMentionedUserIds(tweets, users);
         Set<String> mentionedUsers = new HashSet<String>();
-        Pattern regex = Pattern.compile("(?<=^|(?<=[^a-zA-Z0-9-_\\.]))@([A-Za-z]+[A-Za-z0-9-_]+)");
+        for (int id = 0; id < users.size(); id++) {
+            mentionedUsers.add(users.name(id));
+        }
+        return mentionedUsers;
+    }
+
+    /**
+     * Get the ids of users mentioned in a list of tweets.
+     * 
+     * @param tweets
+     *            list of tweets with distinct ids, not modified by this method.
+     * @param users
+     *            symbol table to intern the mentioned usernames into; a shared
+     *            table makes the ids comparable across calls.
+     * @return the set of ids in users of the usernames mentioned in the text
+     *         of the tweets, as defined by getMentionedUsers.
+     */
+    public static BitSet getMentionedUserIds(List<Tweet> tweets, SymbolTable users) {
+        BitSet mentionedUsers = new BitSet();
         for (Tweet tweet : tweets) {
-            String text = tweet.getText();
-            Matcher matcher = regex.matcher(text);
+            MentionScanner.scan(tweet.getText(),
+                    (text, start, end) -> mentionedUsers.set(users.intern(text, start, end)));
+        }
+        return mentionedUsers;
+    }
 
-            while (matcher.find()) {
-                String userMentioned = matcher.group().substring(1).toLowerCase();
-                mentionedUsers.add(userMentioned);
-            }
+    /**
+     * Get usernames mentioned in the tweets in an arena, scanning the stored
+     * UTF-8 texts without decoding them.
+     * 
+     * @param arena
+     *            arena of tweets with distinct ids, not modified by this method.
+     * @return the set of usernames who are mentioned in the text of the tweets,
+     *         as defined by getMentionedUsers(List), in lower case.
+     */
+    public static Set<String> getMentionedUsers(TweetArena arena) {
+        SymbolTable users = new SymbolTable();
+        getMentionedUserIds(arena, users);
+        Set<String> mentionedUsers = new HashSet<String>();
+        for (int id = 0; id < users.size(); id++) {
+            mentionedUsers.add(users.name(id));
         }
         return mentionedUsers;
     }
 
     /**
-     * Helper method to facilitate compare and sort by tweet timestamp
-     * @return comparator by timestamp
+     * Get the ids of users mentioned in the tweets in an arena.
+     * 
+     * @param arena
+     *            arena of tweets with distinct ids, not modified by this method.
+     * @param users
+     *            symbol table to intern the mentioned usernames into, as in
+     *            getMentionedUserIds(List, SymbolTable).
+     * @return the set of ids in users of the usernames mentioned in the text
+     *         of the tweets, as defined by getMentionedUsers(List).
+     */
+    public static BitSet getMentionedUserIds(TweetArena arena, SymbolTable users) {
+        BitSet mentionedUsers = new BitSet();
+        arena.scanMentions((text, start, end) -> mentionedUsers.set(users.intern(text, start, end)));
+        return mentionedUsers;
+    }
+
+    /**
+     * Get the ids of users mentioned in the tweets of an archive, scanning
+     * the archived UTF-8 texts without decoding them.
+     * 
+     * @param archive
+     *            archive of tweets with distinct ids.
+     * @param users
+     *            symbol table to intern the mentioned usernames into, as in
+     *            getMentionedUserIds(List, SymbolTable).
+     * @return the set of ids in users of the usernames mentioned in the text
+     *         of the tweets, as defined by getMentionedUsers(List).
      */
-    private static Comparator<Tweet> getCompByTimestamp() {
-        Comparator comp = new Comparator<Tweet>() {
+    public static BitSet getMentionedUserIds(TweetArchive archive, SymbolTable users) {
+        BitSet mentionedUsers = new BitSet();
+        archive.scanMentions((text, start, end) -> mentionedUsers.set(users.intern(text, start, end)));
+        return mentionedUsers;
+    }
 
-            @Override
-            public int compare(Tweet t1, Tweet t2) {
-                return t1.getTimestamp().compareTo(t2.getTimestamp());
-            }
-        };
-        return comp;
+    /**
+     * Estimate the number of distinct users mentioned in a list of tweets,
+     * without building the set of them.
+     * 
+     * @param tweets
+     *            list of tweets, not modified by this method.
+     * @param precision
+     *            precision of the estimator, as in HyperLogLog(int).
+     * @return an estimator holding the usernames mentioned in the text of the
+     *         tweets, as defined by getMentionedUsers; it can be merged with
+     *         estimators of other tweets of the same precision.
+     * @throws IllegalArgumentException if precision is out of range
+     */
+    public static HyperLogLog estimateMentionedUsers(List<Tweet> tweets, int precision) {
+        HyperLogLog mentionedUsers = new HyperLogLog(precision);
+        for (Tweet tweet : tweets) {
+            MentionScanner.scan(tweet.getText(), mentionedUsers::add);
+        }
+        return mentionedUsers;
+    }
+
+    /**
+     * Estimate the number of distinct authors of a list of tweets, without
+     * building the set of them.
+     * 
+     * @param tweets
+     *            list of tweets, not modified by this method.
+     * @param precision
+     *            precision of the estimator, as in HyperLogLog(int).
+     * @return an estimator holding the authors of the tweets, ignoring case.
+     * @throws IllegalArgumentException if precision is out of range
+     */
+    public static HyperLogLog estimateAuthors(List<Tweet> tweets, int precision) {
+        HyperLogLog authors = new HyperLogLog(precision);
+        for (Tweet tweet : tweets) {
+            authors.add(tweet.getAuthor());
+        }
+        return authors;
     }
 
 }
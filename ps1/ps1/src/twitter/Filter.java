@@ -7,8 +7,6 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Filter consists of methods that filter a list of tweets for those matching a
@@ -34,13 +32,46 @@ public class Filter {
     public static List<Tweet> writtenBy(List<Tweet> tweets, String username) {
         List<Tweet> writtenByUsername = new ArrayList<Tweet>();
         tweets.forEach(tweet -> {
-            if (tweet.getAuthor().toLowerCase().equals(username.toLowerCase())) {
+            if (tweet.getAuthor().equalsIgnoreCase(username)) {
                 writtenByUsername.add(tweet);
             }
         });
         return writtenByUsername;
     }
 
+    /**
+     * Find tweets written by a particular user, using an author index instead
+     * of scanning every tweet.
+     *
+     * @param index
+     *            an index over a store of tweets with distinct ids, not
+     *            modified by this method.
+     * @param username
+     *            Twitter username, required to be a valid Twitter username as
+     *            defined by Tweet.getAuthor()'s spec.
+     * @return all and only the indexed tweets whose author is username,
+     *         in timestamp order.
+     */
+    public static List<Tweet> writtenBy(AuthorIndex index, String username) {
+        return index.tweetsAt(index.writtenBy(username));
+    }
+
+    /**
+     * Find tweets written by a particular user, comparing the authors stored
+     * in an arena without making a Tweet for each.
+     *
+     * @param arena
+     *            an arena of tweets with distinct ids, not modified by this method.
+     * @param username
+     *            Twitter username, required to be a valid Twitter username as
+     *            defined by Tweet.getAuthor()'s spec.
+     * @return all and only the stored tweets whose author is username,
+     *         in ordinal order.
+     */
+    public static List<Tweet> writtenBy(TweetArena arena, String username) {
+        return arena.tweetsAt(arena.writtenBy(username));
+    }
+
     /**
      * Find tweets that were sent during a particular timespan.
      * 
@@ -55,13 +86,45 @@ public class Filter {
         List<Tweet> tweetsInTimespan = new ArrayList<Tweet>();
         tweets.forEach(tweet -> {
             Instant logTime = tweet.getTimestamp();
-            if (logTime.isAfter(timespan.getStart()) && timespan.getEnd().isAfter(logTime)) {
+            if (!logTime.isBefore(timespan.getStart()) && !logTime.isAfter(timespan.getEnd())) {
                 tweetsInTimespan.add(tweet);
             }
         });
         return tweetsInTimespan;
     }
 
+    /**
+     * Find tweets that were sent during a particular timespan, using the
+     * time-sorted order of a store instead of scanning every tweet.
+     *
+     * @param store
+     *            a store of tweets with distinct ids, not modified by this method.
+     * @param timespan
+     *            timespan
+     * @return all and only the stored tweets that were sent during the timespan,
+     *         in ordinal order.
+     */
+    public static List<Tweet> inTimespan(TweetStore store, Timespan timespan) {
+        final int[] ordinals = store.inTimespan(timespan);
+        Arrays.sort(ordinals);
+        return store.tweetsAt(ordinals);
+    }
+
+    /**
+     * Find tweets that were sent during a particular timespan, comparing the
+     * timestamps stored in an arena without making a Tweet for each.
+     *
+     * @param arena
+     *            an arena of tweets with distinct ids, not modified by this method.
+     * @param timespan
+     *            timespan
+     * @return all and only the stored tweets that were sent during the timespan,
+     *         in ordinal order.
+     */
+    public static List<Tweet> inTimespan(TweetArena arena, Timespan timespan) {
+        return arena.tweetsAt(arena.inTimespan(timespan));
+    }
+
     /**
      * Find tweets that contain certain words.
      * 
@@ -78,26 +141,58 @@ public class Filter {
      *         same order as in the input list.
      */
     public static List<Tweet> containing(List<Tweet> tweets, List<String> words) {
-        List<Tweet> tweetMatched = new ArrayList<Tweet>();
-        // English word regular expression: https://www.tutorialspoint.com/how-to-extract-each-english-word-from-a-string-using-regular-expression-in-java
-        String regex = "[a-zA-Z]+";
-        Pattern pattern = Pattern.compile(regex);
-        tweets.forEach(tweet -> {
-            String[] splits = tweet.getText().split(" ");
-            List<String> wordsArr = new ArrayList<String>();
-            Arrays.asList(splits).forEach(split -> {
-                Matcher matcher = pattern.matcher(split);
-                if (matcher.find()) {
-                    wordsArr.add(matcher.group().toLowerCase());
-                }
-            });
-            words.forEach(word -> {
-                if (wordsArr.contains(word.toLowerCase())) {
-                    tweetMatched.add(tweet);
-                }
-            });
-        });
-        return tweetMatched;
+        return new TweetIndex(tweets).containing(words);
+    }
+
+    /**
+     * Find tweets that contain certain words, using a prebuilt index so that
+     * repeated queries against the same tweets don't re-tokenize them.
+     *
+     * @param index
+     *            an index over a list of tweets with distinct ids, not modified
+     *            by this method.
+     * @param words
+     *            a list of words to search for in the tweets, as in
+     *            containing(List, List).
+     * @return all and only the indexed tweets that include at least one of the
+     *         words, as in containing(List, List), in ordinal order.
+     */
+    public static List<Tweet> containing(TweetIndex index, List<String> words) {
+        return index.containing(words);
+    }
+
+    /**
+     * Find tweets that contain certain words, matching the UTF-8 texts stored
+     * in an arena without decoding them.
+     *
+     * @param arena
+     *            an arena of tweets with distinct ids, not modified by this method.
+     * @param words
+     *            a list of words to search for in the tweets, as in
+     *            containing(List, List).
+     * @return all and only the stored tweets that include at least one of the
+     *         words, as in containing(List, List), in ordinal order.
+     */
+    public static List<Tweet> containing(TweetArena arena, List<String> words) {
+        return arena.tweetsAt(arena.containing(words));
+    }
+
+    /**
+     * Find tweets that match a boolean or phrase query, such as
+     * "rivest AND (talk OR lecture) NOT \"in 30 minutes\"".
+     *
+     * @param index
+     *            an index over a list of tweets with distinct ids, not modified
+     *            by this method.
+     * @param query
+     *            a query in the grammar of TextQuery, with words as in
+     *            containing(List, List).
+     * @return all and only the indexed tweets that match the query, in
+     *         ordinal order.
+     * @throws IllegalArgumentException if query is not in the grammar
+     */
+    public static List<Tweet> matching(TweetIndex index, String query) {
+        return TextQuery.parse(query).search(index);
     }
 
 }
@@ -0,0 +1,213 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable compressed-sparse-row view of a social network (as defined in
+ * SocialNetwork).
+ *
+ * Users are numbered 0..userCount()-1 and the follows edges are stored as an
+ * offsets array into a targets array, so user u follows
+ * targets[offsets[u] .. offsets[u+1]). The transposed rows (who follows each
+ * user) are kept too, so that rank propagation can pull from followers and
+ * every user's new rank is written by exactly one thread.
+ */
+public class FollowsGraphCsr {
+
+    /** Graphs smaller than this many users are ranked on the calling thread. */
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private final String[] names;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] followerOffsets;
+    private final int[] followers;
+    // Abstraction function:
+    //   represents the network in which user names[u] follows names[v]
+    //   iff v is in targets[offsets[u] .. offsets[u+1])
+    // Rep invariant:
+    //   names are distinct and lower-case
+    //   offsets.length == followerOffsets.length == names.length + 1
+    //   offsets and followerOffsets are nondecreasing, start at 0 and end at
+    //   targets.length == followers.length
+    //   each row of targets is strictly increasing and excludes its own user
+    //   followers is the transpose of targets, rows strictly increasing
+    // Safety from rep exposure:
+    //   all fields are private and final; arrays are never returned
+
+    /**
+     * Make a CSR view of a social network. Usernames are compared
+     * case-insensitively, so users that differ only in case become one user.
+     *
+     * @param followsGraph a social network (as defined in SocialNetwork)
+     */
+    public FollowsGraphCsr(Map<String, Set<String>> followsGraph) {
+        final SymbolTable users = new SymbolTable();
+        int edgeBound = 0;
+        for (Map.Entry<String, Set<String>> entry : followsGraph.entrySet()) {
+            users.intern(entry.getKey());
+            for (String followee : entry.getValue()) {
+                users.intern(followee);
+            }
+            edgeBound += entry.getValue().size();
+        }
+        final int n = users.size();
+        names = new String[n];
+        for (int id = 0; id < n; id++) {
+            names[id] = users.name(id);
+        }
+
+        // gather rows; keys differing only in case land in the same row
+        final int[][] rows = new int[n][];
+        final int[] rowSizes = new int[n];
+        for (Map.Entry<String, Set<String>> entry : followsGraph.entrySet()) {
+            final int source = users.find(entry.getKey());
+            int[] row = rows[source];
+            int size = rowSizes[source];
+            if (row == null) {
+                row = new int[entry.getValue().size()];
+            } else {
+                row = Arrays.copyOf(row, size + entry.getValue().size());
+            }
+            for (String followee : entry.getValue()) {
+                row[size++] = users.find(followee);
+            }
+            rows[source] = row;
+            rowSizes[source] = size;
+        }
+
+        offsets = new int[n + 1];
+        final int[] packed = new int[edgeBound];
+        int edges = 0;
+        final int[] inDegree = new int[n];
+        for (int u = 0; u < n; u++) {
+            offsets[u] = edges;
+            if (rows[u] != null) {
+                final int[] row = rows[u];
+                Arrays.sort(row, 0, rowSizes[u]);
+                for (int i = 0; i < rowSizes[u]; i++) {
+                    final int v = row[i];
+                    if (v != u && (edges == offsets[u] || packed[edges - 1] != v)) {
+                        packed[edges++] = v;
+                        inDegree[v]++;
+                    }
+                }
+                rows[u] = null;
+            }
+        }
+        offsets[n] = edges;
+        targets = Arrays.copyOf(packed, edges);
+
+        followerOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            followerOffsets[v + 1] = followerOffsets[v] + inDegree[v];
+        }
+        followers = new int[edges];
+        final int[] fill = Arrays.copyOf(followerOffsets, n);
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                followers[fill[targets[e]]++] = u;
+            }
+        }
+    }
+
+    /**
+     * @return number of users
+     */
+    public int userCount() {
+        return names.length;
+    }
+
+    /**
+     * @return number of distinct follows edges
+     */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * @param user a user number, requires 0 <= user < userCount()
+     * @return the lower-cased username of that user
+     */
+    public String name(int user) {
+        return names[user];
+    }
+
+    /**
+     * @param user a user number, requires 0 <= user < userCount()
+     * @return the number of users that user follows
+     */
+    public int followsCount(int user) {
+        return offsets[user + 1] - offsets[user];
+    }
+
+    /**
+     * @param user a user number, requires 0 <= user < userCount()
+     * @return the number of users who follow user
+     */
+    public int followerCount(int user) {
+        return followerOffsets[user + 1] - followerOffsets[user];
+    }
+
+    /**
+     * Compute PageRank over the follows edges, so that being followed by
+     * influential users counts for more than being followed by many users.
+     * Users who follow nobody spread their rank evenly over everyone.
+     *
+     * @param damping probability of following an edge rather than jumping to
+     *                a random user, requires 0 <= damping < 1
+     * @param tolerance iteration stops once the L1 change in ranks is at most
+     *                  this, requires tolerance > 0
+     * @param maxIterations upper bound on the number of iterations, requires > 0
+     * @return ranks indexed by user number, summing to 1 (empty if there are
+     *         no users)
+     */
+    public double[] pageRank(double damping, double tolerance, int maxIterations) {
+        final int n = names.length;
+        if (n == 0) {
+            return new double[0];
+        }
+        final boolean parallel = n >= PARALLEL_THRESHOLD;
+        final double teleport = (1 - damping) / n;
+        final double[] rank = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+        final double[] contribution = new double[n];
+        final double[] next = new double[n];
+
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            users(parallel).forEach(u -> {
+                final int degree = offsets[u + 1] - offsets[u];
+                contribution[u] = degree == 0 ? 0 : rank[u] / degree;
+            });
+            final double dangling = users(parallel)
+                    .filter(u -> offsets[u + 1] == offsets[u])
+                    .mapToDouble(u -> rank[u])
+                    .sum();
+            final double base = teleport + damping * dangling / n;
+            users(parallel).forEach(v -> {
+                double sum = 0;
+                for (int e = followerOffsets[v]; e < followerOffsets[v + 1]; e++) {
+                    sum += contribution[followers[e]];
+                }
+                next[v] = base + damping * sum;
+            });
+            final double change = users(parallel).mapToDouble(u -> Math.abs(next[u] - rank[u])).sum();
+            System.arraycopy(next, 0, rank, 0, n);
+            if (change <= tolerance) {
+                break;
+            }
+        }
+        return rank;
+    }
+
+    private IntStream users(boolean parallel) {
+        final IntStream users = IntStream.range(0, names.length);
+        return parallel ? users.parallel() : users;
+    }
+}
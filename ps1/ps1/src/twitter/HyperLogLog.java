@@ -0,0 +1,184 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+/**
+ * Mutable HyperLogLog estimator of the number of distinct Twitter usernames
+ * added to it, ignoring case.
+ *
+ * An estimator with precision p keeps 2^p one-byte registers, and its
+ * estimates have a relative standard error of about 1.04 / sqrt(2^p): about
+ * 1.6% at the default precision of 12, in 4 KB. Estimators of equal precision
+ * can be built separately, for example per shard or per time bucket, and
+ * merged into an estimator of their union.
+ *
+ * An estimator is not thread-safe.
+ */
+public class HyperLogLog {
+
+    /** Smallest allowed precision. */
+    public static final int MIN_PRECISION = 4;
+
+    /** Largest allowed precision. */
+    public static final int MAX_PRECISION = 18;
+
+    /** Precision used by the no-argument constructor. */
+    public static final int DEFAULT_PRECISION = 12;
+
+    private final int precision;
+    private final byte[] registers;
+    // Abstraction function:
+    //   represents the set of case-folded usernames whose hashes have been
+    //   summarized in registers
+    // Rep invariant:
+    //   MIN_PRECISION <= precision <= MAX_PRECISION
+    //   registers.length == 2^precision
+    //   0 <= registers[i] <= 64 - precision + 1
+    // Safety from rep exposure:
+    //   all fields are private; registers is never returned
+
+    /**
+     * Make an empty estimator with the default precision.
+     */
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Make an empty estimator.
+     *
+     * @param precision number of index bits, between MIN_PRECISION and
+     *                  MAX_PRECISION; each one more halves the variance and
+     *                  doubles the memory
+     * @throws IllegalArgumentException if precision is out of range
+     */
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision " + precision + " not in ["
+                    + MIN_PRECISION + ", " + MAX_PRECISION + "]");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * @return the precision of this estimator
+     */
+    public int precision() {
+        return precision;
+    }
+
+    /**
+     * Add a username.
+     *
+     * @param username a username, compared case-insensitively
+     */
+    public void add(CharSequence username) {
+        add(username, 0, username.length());
+    }
+
+    /**
+     * Add a username given as a range of a text, without allocating.
+     *
+     * @param text text containing the username
+     * @param start index of the first character of the username
+     * @param end index one past the last character of the username
+     */
+    public void add(CharSequence text, int start, int end) {
+        addHash(foldedHash(text, start, end));
+    }
+
+    /*
+     * Add an element by its 64-bit hash; the first precision bits choose the
+     * register and the rest supply the run of leading zeros.
+     */
+    void addHash(long hash) {
+        final int index = (int) (hash >>> (64 - precision));
+        final long rest = hash << precision;
+        final int rank = rest == 0 ? 64 - precision + 1 : Long.numberOfLeadingZeros(rest) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * Add every username added to another estimator to this one.
+     *
+     * @param other estimator of the same precision; not modified
+     * @throws IllegalArgumentException if other's precision differs
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("can't merge precision " + other.precision
+                    + " into precision " + precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * @return an estimate of the number of distinct usernames added, ignoring
+     *         case; exact-ish for very small counts
+     */
+    public long estimate() {
+        final int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        final double raw = alpha(m) * m * m / sum;
+        if (raw <= 2.5 * m && zeros > 0) {
+            // small range: linear counting over the empty registers is more accurate
+            return Math.round(m * Math.log((double) m / zeros));
+        }
+        return Math.round(raw);
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+        case 16: return 0.673;
+        case 32: return 0.697;
+        case 64: return 0.709;
+        default: return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    /*
+     * @return a well-mixed 64-bit hash of text[start, end) with A-Z folded
+     */
+    static long foldedHash(CharSequence text, int start, int end) {
+        // FNV-1a over the folded characters, then the murmur3 finalizer
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            hash ^= MentionScanner.toLower(text.charAt(i));
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    @Override public String toString() {
+        return "HyperLogLog(p=" + precision + ", ~" + estimate() + ")";
+    }
+
+    /**
+     * @return a copy of this estimator
+     */
+    public HyperLogLog copy() {
+        final HyperLogLog copy = new HyperLogLog(precision);
+        System.arraycopy(registers, 0, copy.registers, 0, registers.length);
+        return copy;
+    }
+}
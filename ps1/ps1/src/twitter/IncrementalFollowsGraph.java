@@ -0,0 +1,119 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mutable follows graph that grows as tweets arrive.
+ *
+ * After accepting some tweets, followsGraph() is the graph that
+ * SocialNetwork.guessFollowsGraph would build from all of them. Follower counts
+ * are updated as each new edge is added, so ranking users never has to scan
+ * the graph again.
+ */
+public class IncrementalFollowsGraph {
+
+    private final Map<String, Set<String>> followsGraph = new HashMap<String, Set<String>>();
+    private final SymbolTable users = new SymbolTable();
+    private int[] followerCounts = new int[16];
+    // Abstraction function:
+    //   represents the social network followsGraph (as defined in SocialNetwork)
+    // Rep invariant:
+    //   users holds exactly the usernames that appear in followsGraph, as
+    //   keys or in any set, and every such occurrence is users.name(id)
+    //   followerCounts.length >= users.size()
+    //   followerCounts[id] == number of keys k with users.name(id) in followsGraph[k]
+    // Safety from rep exposure:
+    //   all fields are private; followsGraph() returns a copy
+
+    /**
+     * Add the evidence in one tweet to the graph.
+     *
+     * @param tweet a tweet
+     */
+    public void accept(Tweet tweet) {
+        final int author = users.intern(tweet.getAuthor());
+        final Set<String> follows = followsGraph.computeIfAbsent(users.name(author), a -> new HashSet<String>());
+        MentionScanner.scan(tweet.getText(),
+                (text, start, end) -> follow(author, follows, users.intern(text, start, end)));
+        followerCounts = SocialNetwork.ensureCapacity(followerCounts, users.size());
+    }
+
+    /**
+     * Add the evidence of one tweet whose mentions were already extracted.
+     *
+     * @param author author of the tweet
+     * @param mentioned usernames mentioned in the tweet, as reported by
+     *                  Extract.getMentionedUsers; not modified
+     */
+    public void accept(String author, Collection<String> mentioned) {
+        final int authorId = users.intern(author);
+        final Set<String> follows = followsGraph.computeIfAbsent(users.name(authorId), a -> new HashSet<String>());
+        for (String followee : mentioned) {
+            follow(authorId, follows, users.intern(followee));
+        }
+        followerCounts = SocialNetwork.ensureCapacity(followerCounts, users.size());
+    }
+
+    /*
+     * Record that author, whose follows set is follows, follows followee.
+     */
+    private void follow(int author, Set<String> follows, int followee) {
+        if (followee != author && follows.add(users.name(followee))) {
+            followerCounts = SocialNetwork.ensureCapacity(followerCounts, followee + 1);
+            followerCounts[followee]++;
+        }
+    }
+
+    /**
+     * Add the evidence in a batch of tweets to the graph.
+     *
+     * @param tweets tweets, not modified by this method
+     */
+    public void acceptAll(Collection<Tweet> tweets) {
+        tweets.forEach(this::accept);
+    }
+
+    /**
+     * @param username a Twitter username, compared case-insensitively
+     * @return the number of users in the graph who follow username
+     */
+    public int followerCount(String username) {
+        final int id = users.find(username);
+        return id < 0 ? 0 : followerCounts[id];
+    }
+
+    /**
+     * @return a copy of the social network (as defined in SocialNetwork)
+     *         built from all the tweets accepted so far
+     */
+    public Map<String, Set<String>> followsGraph() {
+        final Map<String, Set<String>> copy = new HashMap<String, Set<String>>();
+        followsGraph.forEach((user, follows) -> copy.put(user, new HashSet<String>(follows)));
+        return copy;
+    }
+
+    /**
+     * @return a list of all distinct usernames in the graph, lower-cased, in
+     *         descending order of follower count; users with equal counts are
+     *         in alphabetical order
+     */
+    public List<String> influencers() {
+        return influencers(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param k maximum number of usernames to return, requires k >= 0
+     * @return the first min(k, number of users) usernames of influencers()
+     */
+    public List<String> influencers(int k) {
+        return SocialNetwork.topByCount(users, followerCounts, k);
+    }
+}
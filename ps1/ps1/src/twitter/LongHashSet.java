@@ -0,0 +1,143 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.util.Arrays;
+
+/**
+ * Mutable set of long values, such as tweet ids, of fixed capacity.
+ *
+ * Values are stored unboxed in an open-addressing table with linear probing,
+ * kept at most half full, so the set's memory is fixed when it is made: about
+ * 16 bytes per value of capacity. Adding to a full set fails rather than
+ * growing.
+ *
+ * A set is not thread-safe.
+ */
+public class LongHashSet {
+
+    private final long[] table;
+    private final int capacity;
+    private boolean hasZero;
+    private int size;
+    // Abstraction function:
+    //   represents the set of nonzero values in table, plus 0 if hasZero
+    // Rep invariant:
+    //   table.length is a power of two, >= 2 * capacity
+    //   nonzero values in table are distinct, each reachable by linear
+    //   probing from its home slot without crossing a 0 slot
+    //   size == number of nonzero values in table + (hasZero ? 1 : 0) <= capacity
+    // Safety from rep exposure:
+    //   all fields are private; table is never returned
+
+    /**
+     * Make an empty set.
+     *
+     * @param capacity maximum number of values the set can hold, > 0
+     * @throws IllegalArgumentException if capacity is not positive or too large
+     */
+    public LongHashSet(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 29) {
+            throw new IllegalArgumentException("capacity out of range: " + capacity);
+        }
+        this.capacity = capacity;
+        this.table = new long[Integer.highestOneBit(capacity * 2 - 1) << 1];
+    }
+
+    /**
+     * Add a value.
+     *
+     * @param value value to add
+     * @return true iff value was not already in the set
+     * @throws IllegalStateException if value is new and the set is full
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            if (hasZero) {
+                return false;
+            }
+            checkNotFull();
+            hasZero = true;
+            size++;
+            return true;
+        }
+        final int mask = table.length - 1;
+        for (int slot = slotOf(value); ; slot = (slot + 1) & mask) {
+            if (table[slot] == value) {
+                return false;
+            }
+            if (table[slot] == 0) {
+                checkNotFull();
+                table[slot] = value;
+                size++;
+                return true;
+            }
+        }
+    }
+
+    private void checkNotFull() {
+        if (size == capacity) {
+            throw new IllegalStateException("set is full at " + capacity + " values");
+        }
+    }
+
+    /**
+     * @param value a value
+     * @return true iff value is in the set
+     */
+    public boolean contains(long value) {
+        if (value == 0) {
+            return hasZero;
+        }
+        final int mask = table.length - 1;
+        for (int slot = slotOf(value); ; slot = (slot + 1) & mask) {
+            if (table[slot] == value) {
+                return true;
+            }
+            if (table[slot] == 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Remove every value.
+     */
+    public void clear() {
+        Arrays.fill(table, 0);
+        hasZero = false;
+        size = 0;
+    }
+
+    /**
+     * @return number of values in the set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true iff the set holds as many values as it can
+     */
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * @return maximum number of values the set can hold
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /*
+     * @return the home slot of a value; tweet ids are nearly sequential, so
+     *         they are mixed before masking
+     */
+    private int slotOf(long value) {
+        long hash = value * 0x9e3779b97f4a7c15L;
+        hash ^= hash >>> 32;
+        return (int) hash & (table.length - 1);
+    }
+}
@@ -0,0 +1,148 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+/**
+ * Mutable map from long keys to nonzero int values, such as reference counts
+ * of packed pairs of user ids.
+ *
+ * Keys and values are stored unboxed in parallel arrays, an open-addressing
+ * table with linear probing kept at most half full and doubled as it grows.
+ * A key maps to 0 exactly when it is absent, so adding to a count until it
+ * reaches 0 removes it; removal shifts later entries back instead of leaving
+ * tombstones, so lookups never slow down as keys come and go.
+ *
+ * A map is not thread-safe.
+ */
+public class LongIntHashMap {
+
+    private long[] keys = new long[16];
+    private int[] values = new int[16];
+    private int zeroValue;
+    private int size;
+    // Abstraction function:
+    //   represents the map keys[i] -> values[i] for every slot i with
+    //   values[i] != 0, plus 0 -> zeroValue if zeroValue != 0
+    // Rep invariant:
+    //   keys.length == values.length, a power of two, > 2 * size
+    //   a slot is empty iff its value is 0, and then its key is 0 too
+    //   keys of nonempty slots are distinct and nonzero, each reachable by
+    //   linear probing from its home slot without crossing an empty slot
+    //   size == number of nonempty slots + (zeroValue != 0 ? 1 : 0)
+    // Safety from rep exposure:
+    //   all fields are private; arrays are never returned
+
+    /**
+     * Make an empty map.
+     */
+    public LongIntHashMap() {
+    }
+
+    /**
+     * @param key a key
+     * @return the value of key, or 0 if it has none
+     */
+    public int get(long key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        final int mask = keys.length - 1;
+        for (int slot = slotOf(key, mask); values[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Add to the value of a key, as if absent keys had value 0.
+     *
+     * @param key a key
+     * @param delta amount to add
+     * @return the new value of key; if it is 0, key is now absent
+     */
+    public int add(long key, int delta) {
+        if (key == 0) {
+            final int old = zeroValue;
+            zeroValue += delta;
+            size += (zeroValue != 0 ? 1 : 0) - (old != 0 ? 1 : 0);
+            return zeroValue;
+        }
+        final int mask = keys.length - 1;
+        int slot = slotOf(key, mask);
+        while (values[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (values[slot] == 0) {
+            if (delta == 0) {
+                return 0;
+            }
+            keys[slot] = key;
+            values[slot] = delta;
+            if (2 * ++size >= keys.length) {
+                rehash(keys.length * 2);
+            }
+            return delta;
+        }
+        values[slot] += delta;
+        final int value = values[slot];
+        if (value == 0) {
+            size--;
+            removeSlot(slot);
+        }
+        return value;
+    }
+
+    /*
+     * Empty a slot, shifting back any later entries of its probe run that
+     * could otherwise no longer be reached.
+     */
+    private void removeSlot(int slot) {
+        final int mask = keys.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; values[next] != 0; next = (next + 1) & mask) {
+            final int home = slotOf(keys[next], mask);
+            // move next into the hole unless its home lies cyclically in (hole, next]
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = 0;
+        values[hole] = 0;
+    }
+
+    private void rehash(int length) {
+        final long[] oldKeys = keys;
+        final int[] oldValues = values;
+        keys = new long[length];
+        values = new int[length];
+        final int mask = length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != 0) {
+                int slot = slotOf(oldKeys[i], mask);
+                while (values[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * @return number of keys with a nonzero value
+     */
+    public int size() {
+        return size;
+    }
+
+    private static int slotOf(long key, int mask) {
+        long hash = key * 0x9e3779b97f4a7c15L;
+        hash ^= hash >>> 32;
+        return (int) hash & mask;
+    }
+}
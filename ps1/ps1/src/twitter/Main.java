@@ -6,6 +6,9 @@ package twitter;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -36,7 +39,9 @@ public class Main {
      * Main method of the program. Fetches a sample of tweets and prints some
      * facts about it.
      * 
-     * @param args command-line arguments (not used)
+     * @param args command-line arguments: optionally, the path of a tweet
+     *             archive to load the tweets from; if it doesn't exist yet,
+     *             the tweets are fetched and saved there for the next run
      */
     public static void main(String[] args) {
         try {
@@ -46,7 +51,8 @@ public class Main {
         
         final List<Tweet> tweets;
         try {
-            tweets = TweetReader.readTweetsFromWeb(SAMPLE_SERVER);
+            tweets = args.length > 0 ? readTweetsArchived(Paths.get(args[0]))
+                                     : TweetReader.readTweetsFromWeb(SAMPLE_SERVER);
         } catch (IOException ioe) {
             throw new RuntimeException(ioe);
         }
@@ -57,8 +63,8 @@ public class Main {
         final Timespan span = Extract.getTimespan(tweets);
         System.err.println("ranging from " + span.getStart() + " to " + span.getEnd());
         
-        final Set<String> mentionedUsers = Extract.getMentionedUsers(tweets);
-        System.err.println("covers " + mentionedUsers.size() + " Twitter users");
+        final HyperLogLog mentionedUsers = Extract.estimateMentionedUsers(tweets, HyperLogLog.DEFAULT_PRECISION);
+        System.err.println("covers about " + mentionedUsers.estimate() + " Twitter users");
         
         // infer the follows graph
         final Map<String, Set<String>> followsGraph = SocialNetwork.guessFollowsGraph(tweets);
@@ -66,10 +72,21 @@ public class Main {
         
         // print the top-N influencers
         final int count = 10;
-        final List<String> influencers = SocialNetwork.influencers(followsGraph);
-        for (String username : influencers.subList(0, Math.min(count, influencers.size()))) {
+        final List<String> influencers = SocialNetwork.influencers(followsGraph, count);
+        for (String username : influencers) {
             System.out.println(username);
         }
     }
     
+    /*
+     * Load tweets from an archive, fetching and archiving them first if the
+     * archive doesn't exist.
+     */
+    private static List<Tweet> readTweetsArchived(Path archive) throws IOException {
+        if (!Files.exists(archive)) {
+            TweetArchive.write(TweetReader.readTweetsFromWeb(SAMPLE_SERVER), archive);
+        }
+        return TweetArchive.open(archive);
+    }
+    
 }
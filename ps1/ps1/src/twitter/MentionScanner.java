@@ -0,0 +1,137 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.util.Collection;
+
+/**
+ * Single-pass scanner for username-mentions in tweet text.
+ *
+ * A username-mention is an "@" that is at the start of the text or follows a
+ * character that is not a letter, digit, "-", "_" or ".", followed by the
+ * longest run of username characters (letters, digits, "-", "_") after it,
+ * provided that run starts with a letter and is at least two characters long.
+ * These are the mentions that Extract.getMentionedUsers reports.
+ *
+ * The static scan reports mention boundaries without allocating, and over a
+ * ByteText it skips to each "@" 8 bytes at a time. An instance
+ * keeps a reusable buffer for case-folding names, so it is not thread-safe.
+ */
+public class MentionScanner {
+
+    /**
+     * Receives the mentions found by a scan.
+     */
+    public interface MentionListener {
+        /**
+         * Called once per mention, in text order.
+         *
+         * @param text the text being scanned
+         * @param start index of the first character of the username, after the "@"
+         * @param end index one past the last character of the username
+         */
+        void mention(CharSequence text, int start, int end);
+    }
+
+    private char[] buffer = new char[16];
+    // Rep invariant:
+    //   buffer.length > 0
+    // Safety from rep exposure:
+    //   buffer is private and only ever copied into new Strings
+
+    /**
+     * Find every username-mention in a text.
+     *
+     * @param text text to scan
+     * @param listener called with the bounds of each mentioned username
+     */
+    public static void scan(CharSequence text, MentionListener listener) {
+        final int length = text.length();
+        int i = indexOfAt(text, 0, length);
+        while (i < length) {
+            int end = i + 1;
+            if ((i == 0 || !isUsernameOrDot(text.charAt(i - 1)))
+                    && end < length && isLetter(text.charAt(end))) {
+                end++;
+                while (end < length && isUsernameChar(text.charAt(end))) {
+                    end++;
+                }
+                if (end - i > 2) {
+                    listener.mention(text, i + 1, end);
+                }
+            }
+            i = indexOfAt(text, end, length);
+        }
+    }
+
+    /*
+     * @return the index of the first '@' in text[from, length), or length if none
+     */
+    private static int indexOfAt(CharSequence text, int from, int length) {
+        if (text instanceof ByteText) {
+            return ((ByteText) text).indexOf((byte) '@', from, length);
+        }
+        for (int i = from; i < length; i++) {
+            if (text.charAt(i) == '@') {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Add the case-folded username of every mention in a text to a collection.
+     *
+     * @param text text to scan
+     * @param mentions receives each mentioned username, in lower case
+     */
+    public void collect(CharSequence text, Collection<? super String> mentions) {
+        scan(text, (t, start, end) -> mentions.add(fold(t, start, end)));
+    }
+
+    /**
+     * Case-fold a username, going through this scanner's buffer so that only
+     * the resulting String is allocated.
+     *
+     * @param text text containing the username
+     * @param start index of the first character of the username
+     * @param end index one past the last character of the username
+     * @return text[start, end) with letters A-Z lower-cased
+     */
+    public String fold(CharSequence text, int start, int end) {
+        final int length = end - start;
+        if (length > buffer.length) {
+            buffer = new char[Math.max(length, buffer.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            buffer[i] = toLower(text.charAt(start + i));
+        }
+        return new String(buffer, 0, length);
+    }
+
+    /**
+     * @param c a character
+     * @return true iff c may appear in a Twitter username, as defined by
+     *         Tweet.getAuthor()'s spec
+     */
+    public static boolean isUsernameChar(char c) {
+        return isLetter(c) || (c >= '0' && c <= '9') || c == '_' || c == '-';
+    }
+
+    private static boolean isUsernameOrDot(char c) {
+        return c == '.' || isUsernameChar(c);
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    /**
+     * @param c a character
+     * @return c with A-Z lower-cased, all other characters unchanged
+     */
+    public static char toLower(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+}
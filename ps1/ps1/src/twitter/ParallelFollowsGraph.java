@@ -0,0 +1,114 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Builds the same follows graph as SocialNetwork.guessFollowsGraph, using
+ * every core of a fork-join pool.
+ *
+ * The tweets are split into chunks; each chunk is scanned on its own into a
+ * local author -> mentions map, and the local maps are merged pairwise up the
+ * fork-join tree, always folding the smaller map into the larger one.
+ */
+public class ParallelFollowsGraph {
+
+    /** Chunks are never split below this many tweets. */
+    private static final int MIN_CHUNK = 1024;
+
+    /** Aim for this many chunks per worker thread, to balance uneven chunks. */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Guess who might follow whom, from evidence found in tweets, on the
+     * common fork-join pool.
+     *
+     * @param tweets
+     *            a list of tweets providing the evidence, not modified by this
+     *            method.
+     * @return the same social network as SocialNetwork.guessFollowsGraph(tweets)
+     */
+    public static Map<String, Set<String>> guessFollowsGraph(List<Tweet> tweets) {
+        return guessFollowsGraph(tweets, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Guess who might follow whom, from evidence found in tweets.
+     *
+     * @param tweets
+     *            a list of tweets providing the evidence, not modified by this
+     *            method.
+     * @param pool
+     *            pool to run on; its parallelism sets the number of chunks
+     * @return the same social network as SocialNetwork.guessFollowsGraph(tweets)
+     */
+    public static Map<String, Set<String>> guessFollowsGraph(List<Tweet> tweets, ForkJoinPool pool) {
+        final List<Tweet> indexable = tweets instanceof RandomAccess ? tweets : new ArrayList<Tweet>(tweets);
+        final int chunk = Math.max(MIN_CHUNK, indexable.size() / (pool.getParallelism() * CHUNKS_PER_THREAD));
+        return pool.invoke(new BuildTask(indexable, 0, indexable.size(), chunk));
+    }
+
+    /*
+     * Builds the follows graph of tweets[from, to).
+     */
+    private static class BuildTask extends RecursiveTask<Map<String, Set<String>>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Tweet> tweets;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        BuildTask(List<Tweet> tweets, int from, int to, int chunk) {
+            this.tweets = tweets;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override protected Map<String, Set<String>> compute() {
+            if (to - from <= chunk) {
+                final Map<String, Set<String>> local = new HashMap<String, Set<String>>();
+                final SymbolTable users = new SymbolTable();
+                for (int i = from; i < to; i++) {
+                    SocialNetwork.addFollowsEvidence(local, tweets.get(i), users);
+                }
+                return local;
+            }
+            final int middle = (from + to) >>> 1;
+            final BuildTask left = new BuildTask(tweets, from, middle, chunk);
+            left.fork();
+            final Map<String, Set<String>> right = new BuildTask(tweets, middle, to, chunk).compute();
+            return merge(left.join(), right);
+        }
+    }
+
+    /*
+     * Merge two follows graphs, reusing the larger map and the larger set of
+     * each shared author.
+     */
+    private static Map<String, Set<String>> merge(Map<String, Set<String>> a, Map<String, Set<String>> b) {
+        final Map<String, Set<String>> into = a.size() >= b.size() ? a : b;
+        final Map<String, Set<String>> from = into == a ? b : a;
+        for (Map.Entry<String, Set<String>> entry : from.entrySet()) {
+            into.merge(entry.getKey(), entry.getValue(), (mine, theirs) -> {
+                if (mine.size() < theirs.size()) {
+                    theirs.addAll(mine);
+                    return theirs;
+                }
+                mine.addAll(theirs);
+                return mine;
+            });
+        }
+        return into;
+    }
+}
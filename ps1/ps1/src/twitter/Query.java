@@ -0,0 +1,273 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable conjunctive query over tweets, such as
+ * Query.all().author("alyssa").between(timespan).containingAny(words).
+ *
+ * A query is a conjunction of clauses, each of which matches the same tweets
+ * as one of the methods of Filter. Run against a store and its indexes, the
+ * query asks every clause's index for an estimate of how many tweets it
+ * matches, drives the scan from the ordinals of the most selective clause, and
+ * tests the other clauses on each of those tweets in turn, so no intermediate
+ * list of tweets is built.
+ */
+public class Query {
+
+    private static final Query ALL = new Query(Collections.<Clause>emptyList());
+
+    private final List<Clause> clauses;
+    // Abstraction function:
+    //   represents the predicate on tweets that holds iff every clause holds
+    // Rep invariant:
+    //   clauses is unmodifiable
+    // Safety from rep exposure:
+    //   clauses is private and unmodifiable; clauses are immutable
+
+    private Query(List<Clause> clauses) {
+        this.clauses = clauses;
+    }
+
+    /**
+     * @return the query that matches every tweet
+     */
+    public static Query all() {
+        return ALL;
+    }
+
+    /**
+     * @param username Twitter username
+     * @return a query matching the tweets that match this one and are written
+     *         by username, ignoring case, as in Filter.writtenBy
+     */
+    public Query author(String username) {
+        return and(new AuthorClause(username));
+    }
+
+    /**
+     * @param timespan timespan
+     * @return a query matching the tweets that match this one and were sent
+     *         during timespan, endpoints included, as in Filter.inTimespan
+     */
+    public Query between(Timespan timespan) {
+        return and(new TimeClause(timespan));
+    }
+
+    /**
+     * @param words words to search for, compared case-insensitively
+     * @return a query matching the tweets that match this one and contain at
+     *         least one of words, as in Filter.containing
+     */
+    public Query containingAny(List<String> words) {
+        return and(new WordsClause(words));
+    }
+
+    private Query and(Clause clause) {
+        final List<Clause> more = new ArrayList<Clause>(clauses);
+        more.add(clause);
+        return new Query(Collections.unmodifiableList(more));
+    }
+
+    /**
+     * @param tweet a tweet
+     * @return true iff tweet matches this query
+     */
+    public boolean matches(Tweet tweet) {
+        for (Clause clause : clauses) {
+            if (!clause.test(tweet)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find the matching tweets in a list by testing each one.
+     *
+     * @param tweets a list of tweets, not modified by this method
+     * @return all and only the tweets in the list that match this query, in
+     *         the same order as in the input list
+     */
+    public List<Tweet> execute(List<Tweet> tweets) {
+        final List<Tweet> matching = new ArrayList<Tweet>();
+        tweets.forEach(tweet -> {
+            if (matches(tweet)) {
+                matching.add(tweet);
+            }
+        });
+        return matching;
+    }
+
+    /**
+     * Find the matching tweets in a store, driven by the most selective index.
+     *
+     * @param store store of tweets, not modified by this method
+     * @param authors an author index over store
+     * @param words a word index holding the same tweets as store, with the
+     *              same ordinals
+     * @return all and only the stored tweets that match this query, in
+     *         ordinal order
+     * @throws IllegalArgumentException if words does not hold as many tweets
+     *                                  as store
+     */
+    public List<Tweet> execute(TweetStore store, AuthorIndex authors, TweetIndex words) {
+        if (words.size() != store.size()) {
+            throw new IllegalArgumentException("word index holds " + words.size()
+                    + " tweets, store holds " + store.size());
+        }
+        final List<Tweet> matching = new ArrayList<Tweet>();
+        final int driver = plan(store, authors, words);
+        if (driver < 0) {
+            for (int ordinal = 0; ordinal < store.size(); ordinal++) {
+                matching.add(store.get(ordinal));
+            }
+            return matching;
+        }
+        for (int ordinal : clauses.get(driver).ordinals(store, authors, words)) {
+            final Tweet tweet = store.get(ordinal);
+            boolean matches = true;
+            for (int i = 0; i < clauses.size() && matches; i++) {
+                matches = i == driver || clauses.get(i).test(tweet);
+            }
+            if (matches) {
+                matching.add(tweet);
+            }
+        }
+        return matching;
+    }
+
+    /*
+     * @return the position in clauses of the clause with the smallest
+     *         estimate, or -1 if there are no clauses
+     */
+    int plan(TweetStore store, AuthorIndex authors, TweetIndex words) {
+        int best = -1;
+        int bestEstimate = Integer.MAX_VALUE;
+        for (int i = 0; i < clauses.size(); i++) {
+            final int estimate = clauses.get(i).estimate(store, authors, words);
+            if (best < 0 || estimate < bestEstimate) {
+                best = i;
+                bestEstimate = estimate;
+            }
+        }
+        return best;
+    }
+
+    @Override public String toString() {
+        return clauses.isEmpty() ? "all" : clauses.toString();
+    }
+
+    /*
+     * One condition of a query, which can be tested on a tweet or looked up
+     * in an index.
+     */
+    private interface Clause {
+
+        /*
+         * @return true iff tweet satisfies this clause
+         */
+        boolean test(Tweet tweet);
+
+        /*
+         * @return an upper bound on the length of ordinals(...), found
+         *         without scanning tweets
+         */
+        int estimate(TweetStore store, AuthorIndex authors, TweetIndex words);
+
+        /*
+         * @return the ordinals of all and only the stored tweets satisfying
+         *         this clause, in increasing order
+         */
+        int[] ordinals(TweetStore store, AuthorIndex authors, TweetIndex words);
+    }
+
+    private static class AuthorClause implements Clause {
+        private final String username;
+
+        AuthorClause(String username) {
+            this.username = username;
+        }
+
+        @Override public boolean test(Tweet tweet) {
+            return tweet.getAuthor().equalsIgnoreCase(username);
+        }
+
+        @Override public int estimate(TweetStore store, AuthorIndex authors, TweetIndex words) {
+            return authors.count(username);
+        }
+
+        @Override public int[] ordinals(TweetStore store, AuthorIndex authors, TweetIndex words) {
+            final int[] ordinals = authors.writtenBy(username);
+            Arrays.sort(ordinals);
+            return ordinals;
+        }
+
+        @Override public String toString() {
+            return "author=" + username;
+        }
+    }
+
+    private static class TimeClause implements Clause {
+        private final Timespan timespan;
+
+        TimeClause(Timespan timespan) {
+            this.timespan = timespan;
+        }
+
+        @Override public boolean test(Tweet tweet) {
+            final Instant timestamp = tweet.getTimestamp();
+            return !timestamp.isBefore(timespan.getStart()) && !timestamp.isAfter(timespan.getEnd());
+        }
+
+        @Override public int estimate(TweetStore store, AuthorIndex authors, TweetIndex words) {
+            return store.estimateInTimespan(timespan);
+        }
+
+        @Override public int[] ordinals(TweetStore store, AuthorIndex authors, TweetIndex words) {
+            final int[] ordinals = store.inTimespan(timespan);
+            Arrays.sort(ordinals);
+            return ordinals;
+        }
+
+        @Override public String toString() {
+            return "between=" + timespan;
+        }
+    }
+
+    private static class WordsClause implements Clause {
+        private final List<String> words;
+        private final String[] lowerWords;
+
+        WordsClause(List<String> words) {
+            this.words = Collections.unmodifiableList(new ArrayList<String>(words));
+            this.lowerWords = new String[words.size()];
+            for (int i = 0; i < lowerWords.length; i++) {
+                lowerWords[i] = this.words.get(i).toLowerCase();
+            }
+        }
+
+        @Override public boolean test(Tweet tweet) {
+            return TweetIndex.containsAny(tweet.getText(), lowerWords);
+        }
+
+        @Override public int estimate(TweetStore store, AuthorIndex authors, TweetIndex index) {
+            return index.estimateContainingAny(words);
+        }
+
+        @Override public int[] ordinals(TweetStore store, AuthorIndex authors, TweetIndex index) {
+            return index.containingAny(words);
+        }
+
+        @Override public String toString() {
+            return "containingAny=" + words;
+        }
+    }
+}
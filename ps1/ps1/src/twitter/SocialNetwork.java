@@ -4,7 +4,6 @@
 package twitter;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * SocialNetwork provides methods that operate on a social network.
@@ -24,6 +23,9 @@ import java.util.stream.Collectors;
  */
 public class SocialNetwork {
 
+    /** Upper bound on PageRank iterations in influenceScores. */
+    private static final int MAX_RANK_ITERATIONS = 100;
+
     /**
      * Guess who might follow whom, from evidence found in tweets.
      * 
@@ -41,21 +43,26 @@ public class SocialNetwork {
      */
     public static Map<String, Set<String>> guessFollowsGraph(List<Tweet> tweets) {
         Map<String, Set<String>> followGraph = new HashMap<String, Set<String>>();
-        tweets.forEach(tweet -> {
-            Set<String> mentionedUsers = Extract.getMentionedUsers(Arrays.asList(tweet));
+        SymbolTable users = new SymbolTable();
+        tweets.forEach(tweet -> addFollowsEvidence(followGraph, tweet, users));
+        return followGraph;
+    }
+
+    /*
+     * Add the follows evidence in one tweet to a graph: its author follows
+     * everyone else it mentions. Usernames are case-folded through users, so
+     * every occurrence of a user in the graph is the same String.
+     */
+    static void addFollowsEvidence(Map<String, Set<String>> followGraph, Tweet tweet, SymbolTable users) {
+        int author = users.intern(tweet.getAuthor());
+        Set<String> mentionedUsers = followGraph.computeIfAbsent(users.name(author), a -> new HashSet<String>());
+        MentionScanner.scan(tweet.getText(), (text, start, end) -> {
+            int mentioned = users.intern(text, start, end);
             // one can not be a follower to himself/herself
-            for (String user : mentionedUsers) {
-                if (user.equalsIgnoreCase(tweet.getAuthor())) {
-                    mentionedUsers.remove(user);
-                }
-            }
-            if (followGraph.keySet().contains(tweet.getAuthor())) {
-                followGraph.get(tweet.getAuthor()).addAll(mentionedUsers);
-            } else {
-                followGraph.put(tweet.getAuthor(), mentionedUsers);
+            if (mentioned != author) {
+                mentionedUsers.add(users.name(mentioned));
             }
         });
-        return followGraph;
     }
 
     /**
@@ -68,23 +75,147 @@ public class SocialNetwork {
      *         descending order of follower count.
      */
     public static List<String> influencers(Map<String, Set<String>> followsGraph) {
-        List<String> influencers = new ArrayList<String>();
-        Map<String, Integer> followerCount = new HashMap<String, Integer>();
-        for (String user : followsGraph.keySet()) {
-            for (String follower : followsGraph.get(user)) {
-                if (followerCount.keySet().contains(follower.toLowerCase())) {
-                    followerCount.put(follower.toLowerCase(), followerCount.get(follower.toLowerCase()) + 1);
-                } else {
-                    followerCount.put(follower.toLowerCase(), 1);
+        return influencers(followsGraph, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Find the k people in a social network who have the greatest influence,
+     * in the sense that they have the most followers. Takes O(E + U log k)
+     * time for a network of E follows among U users.
+     * 
+     * @param followsGraph
+     *            a social network (as defined above)
+     * @param k
+     *            maximum number of usernames to return, requires k >= 0
+     * @return the min(k, U) distinct Twitter usernames in followsGraph with the
+     *         most followers, lower-cased, in descending order of follower
+     *         count; users with equal counts are in alphabetical order.
+     */
+    public static List<String> influencers(Map<String, Set<String>> followsGraph, int k) {
+        final SymbolTable users = new SymbolTable();
+        int[] followerCounts = new int[16];
+        for (Map.Entry<String, Set<String>> entry : followsGraph.entrySet()) {
+            users.intern(entry.getKey());
+            for (String followee : entry.getValue()) {
+                final int id = users.intern(followee);
+                followerCounts = ensureCapacity(followerCounts, id + 1);
+                followerCounts[id]++;
+            }
+        }
+        return topByCount(users, ensureCapacity(followerCounts, users.size()), k);
+    }
+
+    /**
+     * Score the people in a social network by PageRank over the follows
+     * edges, so that a follower who is influential counts for more than one
+     * who is not.
+     * 
+     * @param followsGraph
+     *            a social network (as defined above)
+     * @param damping
+     *            probability of following an edge rather than jumping to a
+     *            random user, requires 0 <= damping < 1; 0.85 is customary
+     * @param tolerance
+     *            iteration stops once the total change in scores is at most
+     *            this, requires tolerance > 0
+     * @return a map from every distinct Twitter username in followsGraph,
+     *         lower-cased, to its score; the scores sum to 1.
+     */
+    public static Map<String, Double> influenceScores(Map<String, Set<String>> followsGraph,
+            double damping, double tolerance) {
+        final FollowsGraphCsr csr = new FollowsGraphCsr(followsGraph);
+        final double[] ranks = csr.pageRank(damping, tolerance, MAX_RANK_ITERATIONS);
+        final Map<String, Double> scores = new HashMap<String, Double>();
+        for (int user = 0; user < ranks.length; user++) {
+            scores.put(csr.name(user), ranks[user]);
+        }
+        return scores;
+    }
+
+    /*
+     * @return counts if it has at least the given length, else a longer copy
+     */
+    static int[] ensureCapacity(int[] counts, int length) {
+        return length <= counts.length ? counts : Arrays.copyOf(counts, Math.max(length, 2 * counts.length));
+    }
+
+    /*
+     * Select the k users with the highest counts with a bounded min-heap whose
+     * root is the weakest user kept so far.
+     *
+     * @param counts counts[id] is the count of users.name(id); requires
+     *               counts.length >= users.size()
+     * @return min(k, users.size()) users, by descending count then ascending name
+     */
+    static List<String> topByCount(SymbolTable users, int[] counts, int k) {
+        final int capacity = Math.min(k, users.size());
+        final String[] names = new String[capacity];
+        final int[] heapCounts = new int[capacity];
+        int size = 0;
+        for (int id = 0; id < users.size(); id++) {
+            final String name = users.name(id);
+            final int count = counts[id];
+            if (size < capacity) {
+                // sift up
+                int child = size++;
+                while (child > 0) {
+                    final int parent = (child - 1) >>> 1;
+                    if (!ranksBelow(count, name, heapCounts[parent], names[parent])) {
+                        break;
+                    }
+                    names[child] = names[parent];
+                    heapCounts[child] = heapCounts[parent];
+                    child = parent;
                 }
+                names[child] = name;
+                heapCounts[child] = count;
+            } else if (capacity > 0 && ranksBelow(heapCounts[0], names[0], count, name)) {
+                siftDown(names, heapCounts, size, name, count);
+            }
+        }
+
+        // pop the weakest user repeatedly, filling the result from the back
+        final String[] ranked = new String[size];
+        while (size > 0) {
+            ranked[size - 1] = names[0];
+            size--;
+            if (size > 0) {
+                siftDown(names, heapCounts, size, names[size], heapCounts[size]);
             }
         }
-        // reference: https://stackoverflow.com/questions/8119366/sorting-hashmap-by-values
-        followerCount = followerCount.entrySet().stream().sorted(Map.Entry.comparingByValue())
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue,
-                        (e1, e2) -> e1, HashMap::new));
-        followerCount.keySet().forEach(user -> influencers.add(user));
-        return influencers;
+        return new ArrayList<String>(Arrays.asList(ranked));
+    }
+
+    /*
+     * Place (name, count) at the root of heap[0, size) and sift it down.
+     */
+    private static void siftDown(String[] names, int[] counts, int size, String name, int count) {
+        int parent = 0;
+        while (true) {
+            int child = 2 * parent + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && ranksBelow(counts[child + 1], names[child + 1], counts[child], names[child])) {
+                child++;
+            }
+            if (!ranksBelow(counts[child], names[child], count, name)) {
+                break;
+            }
+            names[parent] = names[child];
+            counts[parent] = counts[child];
+            parent = child;
+        }
+        names[parent] = name;
+        counts[parent] = count;
+    }
+
+    /*
+     * @return true iff user a ranks below user b: fewer followers, or as many
+     *         and later in alphabetical order
+     */
+    private static boolean ranksBelow(int countA, String nameA, int countB, String nameB) {
+        return countA < countB || (countA == countB && nameA.compareTo(nameB) > 0);
     }
 
 }
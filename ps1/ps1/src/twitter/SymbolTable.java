@@ -0,0 +1,250 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.util.Arrays;
+
+/**
+ * Mutable case-folding symbol table of names compared ignoring the case of
+ * A-Z, such as Twitter usernames or the words TweetIndex indexes.
+ *
+ * Each distinct name, ignoring case, is given a dense int id the first
+ * time it is interned: 0, 1, 2, ... in order of first appearance. Names can
+ * be looked up by any CharSequence range, such as a mention inside a tweet's
+ * text, without allocating; a String is created only for a new name, and
+ * that one lower-case String is shared by everyone who asks for it.
+ *
+ * A name can be removed, and its id is then reused by a later new name, so a
+ * table whose names come and go stays as large as the most names it has
+ * held at once. Until the first removal, ids are simply 0 .. size() - 1.
+ *
+ * A table is not thread-safe.
+ */
+public class SymbolTable {
+
+    private String[] names = new String[16];
+    private int[] hashes = new int[16];
+    private int size;
+    private int idLimit;
+    private int[] freeIds = new int[16];
+    private int freeCount;
+    private int[] table = new int[32];
+    // Abstraction function:
+    //   represents the map names[id] -> id for 0 <= id < idLimit with
+    //   names[id] != null
+    // Rep invariant:
+    //   the nonnull names[0..idLimit) are distinct, nonempty, and lower-case
+    //   (A-Z folded), and there are size of them
+    //   freeIds[0..freeCount) are exactly the ids < idLimit with null names
+    //   hashes[id] == foldedHash(names[id]) for each nonnull names[id]
+    //   table.length is a power of two, >= 2 * size
+    //   table is an open-addressing table with linear probing, where each
+    //   slot is 0 if empty or id + 1 for an id with a nonnull name
+    // Safety from rep exposure:
+    //   all fields are private; names are immutable Strings
+
+    /**
+     * Intern a name.
+     *
+     * @param name a nonempty name
+     * @return the id of name, ignoring case, adding it if new
+     */
+    public int intern(CharSequence name) {
+        return intern(name, 0, name.length());
+    }
+
+    /**
+     * Intern a name given as a range of a text.
+     *
+     * @param text text containing the name
+     * @param start index of the first character of the name
+     * @param end index one past the last character, requires end > start
+     * @return the id of text[start, end), ignoring case, adding it if new
+     */
+    public int intern(CharSequence text, int start, int end) {
+        return intern(text, start, end, foldedHash(text, start, end));
+    }
+
+    /*
+     * Intern text[start, end) given its foldedHash, as computed by
+     * WordTokenizer while it scanned the name.
+     */
+    int intern(CharSequence text, int start, int end, int hash) {
+        final int slot = slotOf(hash, text, start, end);
+        if (table[slot] != 0) {
+            return table[slot] - 1;
+        }
+
+        final int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            id = idLimit++;
+            if (id == names.length) {
+                names = Arrays.copyOf(names, id * 2);
+                hashes = Arrays.copyOf(hashes, id * 2);
+            }
+        }
+        size++;
+        final char[] folded = new char[end - start];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = MentionScanner.toLower(text.charAt(start + i));
+        }
+        names[id] = new String(folded);
+        hashes[id] = hash;
+        table[slot] = id + 1;
+        if (2 * size > table.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    /**
+     * Look up a name without adding it.
+     *
+     * @param name a name
+     * @return the id of name, ignoring case, or -1 if it was never interned
+     */
+    public int find(CharSequence name) {
+        return find(name, 0, name.length());
+    }
+
+    /**
+     * Look up a name given as a range of a text, without adding it.
+     *
+     * @param text text containing the name
+     * @param start index of the first character of the name
+     * @param end index one past the last character of the name
+     * @return the id of text[start, end), ignoring case, or -1 if it was
+     *         never interned
+     */
+    public int find(CharSequence text, int start, int end) {
+        return table[slotOf(foldedHash(text, start, end), text, start, end)] - 1;
+    }
+
+    /*
+     * @return the slot of table holding text[start, end), or else the empty
+     *         slot where it would go
+     */
+    private int slotOf(int hash, CharSequence text, int start, int end) {
+        int slot = hash & (table.length - 1);
+        while (table[slot] != 0) {
+            final int id = table[slot] - 1;
+            if (hashes[id] == hash && matches(names[id], text, start, end)) {
+                return slot;
+            }
+            slot = (slot + 1) & (table.length - 1);
+        }
+        return slot;
+    }
+
+    /**
+     * @param id an id, requires 0 <= id < idLimit() and that id is in use
+     * @return the lower-case name with that id
+     */
+    public String name(int id) {
+        if (id < 0 || id >= idLimit || names[id] == null) {
+            throw new IndexOutOfBoundsException("id " + id + " of " + idLimit);
+        }
+        return names[id];
+    }
+
+    /**
+     * Remove a name. Its id may be given to a name interned later.
+     *
+     * @param id id of the name to remove, requires 0 <= id < idLimit() and
+     *           that id is in use
+     */
+    public void remove(int id) {
+        if (id < 0 || id >= idLimit || names[id] == null) {
+            throw new IndexOutOfBoundsException("id " + id + " of " + idLimit);
+        }
+        final int mask = table.length - 1;
+        int hole = hashes[id] & mask;
+        while (table[hole] != id + 1) {
+            hole = (hole + 1) & mask;
+        }
+        // shift back later entries of the probe run that the hole would cut off
+        for (int next = (hole + 1) & mask; table[next] != 0; next = (next + 1) & mask) {
+            final int home = hashes[table[next] - 1] & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table[hole] = table[next];
+                hole = next;
+            }
+        }
+        table[hole] = 0;
+        names[id] = null;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        }
+        freeIds[freeCount++] = id;
+        size--;
+    }
+
+    /**
+     * @return number of distinct names in the table
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return one more than the largest id ever given out, so every id in use
+     *         is less than it; equal to size() if no name was ever removed
+     */
+    public int idLimit() {
+        return idLimit;
+    }
+
+    private void rehash() {
+        table = new int[table.length * 2];
+        for (int id = 0; id < idLimit; id++) {
+            if (names[id] == null) {
+                continue;
+            }
+            int slot = hashes[id] & (table.length - 1);
+            while (table[slot] != 0) {
+                slot = (slot + 1) & (table.length - 1);
+            }
+            table[slot] = id + 1;
+        }
+    }
+
+    /*
+     * @return true iff folded equals text[start, end) with A-Z folded
+     */
+    private static boolean matches(String folded, CharSequence text, int start, int end) {
+        if (folded.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < folded.length(); i++) {
+            if (folded.charAt(i) != MentionScanner.toLower(text.charAt(start + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * @return a well-mixed hash of text[start, end) with A-Z folded
+     */
+    static int foldedHash(CharSequence text, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + MentionScanner.toLower(text.charAt(i));
+        }
+        return spread(hash);
+    }
+
+    /*
+     * Spread the low bits of a polynomial hash, since the table is indexed
+     * by them.
+     */
+    static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+}
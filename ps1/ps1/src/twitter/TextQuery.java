@@ -0,0 +1,452 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable boolean and phrase query over the text of tweets, evaluated
+ * against the positional postings of a TweetIndex.
+ *
+ * The grammar is:
+ * <pre>
+ *   query   ::= or
+ *   or      ::= and ("OR" and)*
+ *   and     ::= unary ("AND"? unary)*
+ *   unary   ::= "NOT" unary | primary
+ *   primary ::= "(" or ")" | '"' text '"' | term
+ * </pre>
+ * where AND, OR and NOT must be upper-case, adjacent operands are implicitly
+ * ANDed, and a term is any run of characters other than spaces, parentheses
+ * and quotes. Terms and quoted text are split into words exactly as
+ * TweetIndex splits tweets, and compared case-insensitively; a quoted phrase
+ * matches tweets in which its words occur consecutively.
+ *
+ * Conjunctions are evaluated by intersecting posting lists from the shortest
+ * up, galloping through the longer list, so their cost is governed by the
+ * rarest operand rather than the most common one.
+ */
+public class TextQuery {
+
+    private final Node root;
+    private final String source;
+    // Abstraction function:
+    //   represents the predicate on tweet texts denoted by root, parsed from
+    //   the query string source
+    // Rep invariant:
+    //   root is a tree with no shared nodes
+    // Safety from rep exposure:
+    //   all fields are private and immutable
+
+    private TextQuery(Node root, String source) {
+        this.root = root;
+        this.source = source;
+    }
+
+    /**
+     * Parse a query.
+     *
+     * @param query query in the grammar above
+     * @return the parsed query
+     * @throws IllegalArgumentException if query doesn't match the grammar
+     */
+    public static TextQuery parse(String query) {
+        final Parser parser = new Parser(query);
+        final Node root = parser.parseOr();
+        if (parser.peek() != null) {
+            throw new IllegalArgumentException("unexpected " + parser.peek() + " in: " + query);
+        }
+        return new TextQuery(root, query);
+    }
+
+    /**
+     * Find the indexed tweets that match this query.
+     *
+     * @param index index of tweets to search
+     * @return the ordinals of all and only the matching tweets, in increasing
+     *         order
+     */
+    public int[] evaluate(TweetIndex index) {
+        return root.evaluate(index);
+    }
+
+    /**
+     * Find the indexed tweets that match this query.
+     *
+     * @param index index of tweets to search
+     * @return all and only the matching tweets, in ordinal order
+     */
+    public List<Tweet> search(TweetIndex index) {
+        return index.tweetsAt(evaluate(index));
+    }
+
+    @Override public String toString() {
+        return source;
+    }
+
+    /*
+     * @return the first index in [from, to) with sorted[index] >= key, or to
+     *         if none; takes O(log d) time where d is the distance moved
+     */
+    static int gallop(int[] sorted, int from, int to, int key) {
+        if (from >= to || sorted[from] >= key) {
+            return from;
+        }
+        // sorted[low] < key; grow the step until it overshoots
+        int low = from;
+        int step = 1;
+        while (low + step < to && sorted[low + step] < key) {
+            low += step;
+            step <<= 1;
+        }
+        int high = Math.min(low + step, to);
+        // sorted[low] < key <= sorted[high], treating sorted[to] as infinity
+        while (high - low > 1) {
+            final int middle = (low + high) >>> 1;
+            if (sorted[middle] < key) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return high;
+    }
+
+    /*
+     * @return the sorted elements of a that are also in b, both sorted
+     */
+    private static int[] intersect(int[] a, int[] b) {
+        final int[] small = a.length <= b.length ? a : b;
+        final int[] large = small == a ? b : a;
+        final int[] result = new int[small.length];
+        int count = 0;
+        int cursor = 0;
+        for (int key : small) {
+            cursor = gallop(large, cursor, large.length, key);
+            if (cursor == large.length) {
+                break;
+            }
+            if (large[cursor] == key) {
+                result[count++] = key;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /*
+     * @return the sorted elements of a that are not in b, both sorted
+     */
+    private static int[] subtract(int[] a, int[] b) {
+        final int[] result = new int[a.length];
+        int count = 0;
+        int cursor = 0;
+        for (int key : a) {
+            cursor = gallop(b, cursor, b.length, key);
+            if (cursor == b.length || b[cursor] != key) {
+                result[count++] = key;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /*
+     * @return the sorted union of a and b, both sorted
+     */
+    private static int[] union(int[] a, int[] b) {
+        final int[] result = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                result[count++] = a[i++];
+            } else if (i == a.length || b[j] < a[i]) {
+                result[count++] = b[j++];
+            } else {
+                result[count++] = a[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /*
+     * @return 0, 1, ..., size - 1
+     */
+    private static int[] everything(int size) {
+        final int[] all = new int[size];
+        for (int i = 0; i < size; i++) {
+            all[i] = i;
+        }
+        return all;
+    }
+
+    /*
+     * A node of the query tree.
+     */
+    private interface Node {
+        /*
+         * @return the ordinals of the matching tweets, in increasing order
+         */
+        int[] evaluate(TweetIndex index);
+    }
+
+    /*
+     * Tweets whose words include these words consecutively; no words matches
+     * no tweets.
+     */
+    private static class Phrase implements Node {
+        private final List<String> words;
+
+        Phrase(List<String> words) {
+            this.words = words;
+        }
+
+        @Override public int[] evaluate(TweetIndex index) {
+            if (words.isEmpty()) {
+                return new int[0];
+            }
+            final TweetIndex.Postings[] lists = new TweetIndex.Postings[words.size()];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = index.postingsOf(words.get(i));
+                if (lists[i] == null) {
+                    return new int[0];
+                }
+            }
+            // drive from the rarest word, galloping through the others
+            int rarest = 0;
+            for (int i = 1; i < lists.length; i++) {
+                if (lists[i].size() < lists[rarest].size()) {
+                    rarest = i;
+                }
+            }
+            final int[] cursors = new int[lists.length];
+            final int[] result = new int[lists[rarest].size()];
+            int count = 0;
+            candidates:
+            for (int entry = 0; entry < lists[rarest].size(); entry++) {
+                final int ordinal = lists[rarest].ordinal(entry);
+                for (int i = 0; i < lists.length; i++) {
+                    cursors[i] = lists[i].seek(cursors[i], ordinal);
+                    if (cursors[i] == lists[i].size()) {
+                        break candidates;
+                    }
+                    if (lists[i].ordinal(cursors[i]) != ordinal) {
+                        continue candidates;
+                    }
+                }
+                if (lists.length == 1 || hasPhraseAt(lists, cursors)) {
+                    result[count++] = ordinal;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        /*
+         * @return true iff for some position p of lists[0] in its entry
+         *         cursors[0], each lists[i] has position p + i in entry cursors[i]
+         */
+        private static boolean hasPhraseAt(TweetIndex.Postings[] lists, int[] cursors) {
+            final TweetIndex.Postings first = lists[0];
+            for (int k = first.positionsStart(cursors[0]); k < first.positionsEnd(cursors[0]); k++) {
+                final int start = first.position(k);
+                boolean found = true;
+                for (int i = 1; i < lists.length && found; i++) {
+                    found = lists[i].hasPosition(cursors[i], start + i);
+                }
+                if (found) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /*
+     * Tweets matching every positive operand and no negated operand.
+     */
+    private static class And implements Node {
+        private final List<Node> positives;
+        private final List<Node> negatives;
+
+        And(List<Node> positives, List<Node> negatives) {
+            this.positives = positives;
+            this.negatives = negatives;
+        }
+
+        @Override public int[] evaluate(TweetIndex index) {
+            final List<int[]> lists = new ArrayList<int[]>();
+            for (Node positive : positives) {
+                lists.add(positive.evaluate(index));
+            }
+            lists.sort((a, b) -> Integer.compare(a.length, b.length));
+            int[] result = lists.isEmpty() ? everything(index.size()) : lists.get(0);
+            for (int i = 1; i < lists.size() && result.length > 0; i++) {
+                result = intersect(result, lists.get(i));
+            }
+            for (int i = 0; i < negatives.size() && result.length > 0; i++) {
+                result = subtract(result, negatives.get(i).evaluate(index));
+            }
+            return result;
+        }
+    }
+
+    /*
+     * Tweets matching at least one operand.
+     */
+    private static class Or implements Node {
+        private final List<Node> operands;
+
+        Or(List<Node> operands) {
+            this.operands = operands;
+        }
+
+        @Override public int[] evaluate(TweetIndex index) {
+            int[] result = new int[0];
+            for (Node operand : operands) {
+                result = union(result, operand.evaluate(index));
+            }
+            return result;
+        }
+    }
+
+    /*
+     * Tweets not matching the operand.
+     */
+    private static class Not implements Node {
+        private final Node operand;
+
+        Not(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override public int[] evaluate(TweetIndex index) {
+            return subtract(everything(index.size()), operand.evaluate(index));
+        }
+    }
+
+    /*
+     * Recursive-descent parser for the grammar above. Tokens are "(", ")",
+     * "AND", "OR", "NOT", a quoted phrase (starting with '"'), or a term.
+     */
+    private static class Parser {
+        private final String query;
+        private int position;
+        private String lookahead;
+
+        Parser(String query) {
+            this.query = query;
+            advance();
+        }
+
+        String peek() {
+            return lookahead;
+        }
+
+        private String next() {
+            final String token = lookahead;
+            advance();
+            return token;
+        }
+
+        private void advance() {
+            while (position < query.length() && Character.isWhitespace(query.charAt(position))) {
+                position++;
+            }
+            if (position == query.length()) {
+                lookahead = null;
+                return;
+            }
+            final int start = position;
+            final char c = query.charAt(position);
+            if (c == '(' || c == ')') {
+                position++;
+            } else if (c == '"') {
+                final int close = query.indexOf('"', start + 1);
+                if (close < 0) {
+                    throw new IllegalArgumentException("unterminated phrase in: " + query);
+                }
+                position = close + 1;
+            } else {
+                while (position < query.length() && !isDelimiter(query.charAt(position))) {
+                    position++;
+                }
+            }
+            lookahead = query.substring(start, position);
+        }
+
+        private static boolean isDelimiter(char c) {
+            return Character.isWhitespace(c) || c == '(' || c == ')' || c == '"';
+        }
+
+        Node parseOr() {
+            final List<Node> operands = new ArrayList<Node>();
+            operands.add(parseAnd());
+            while ("OR".equals(lookahead)) {
+                next();
+                operands.add(parseAnd());
+            }
+            return operands.size() == 1 ? operands.get(0) : new Or(operands);
+        }
+
+        private Node parseAnd() {
+            final List<Node> positives = new ArrayList<Node>();
+            final List<Node> negatives = new ArrayList<Node>();
+            boolean first = true;
+            while (first || (lookahead != null && !lookahead.equals(")") && !lookahead.equals("OR"))) {
+                if (!first && "AND".equals(lookahead)) {
+                    next();
+                }
+                first = false;
+                final Node operand = parseUnary();
+                if (operand instanceof Not) {
+                    negatives.add(((Not) operand).operand);
+                } else {
+                    positives.add(operand);
+                }
+            }
+            if (positives.size() == 1 && negatives.isEmpty()) {
+                return positives.get(0);
+            }
+            if (positives.isEmpty() && negatives.size() == 1) {
+                return new Not(negatives.get(0));
+            }
+            return new And(positives, negatives);
+        }
+
+        private Node parseUnary() {
+            if ("NOT".equals(lookahead)) {
+                next();
+                final Node operand = parseUnary();
+                return operand instanceof Not ? ((Not) operand).operand : new Not(operand);
+            }
+            return parsePrimary();
+        }
+
+        private Node parsePrimary() {
+            final String token = next();
+            if (token == null || token.equals(")") || token.equals("AND") || token.equals("OR")) {
+                throw new IllegalArgumentException("expected a term at "
+                        + (token == null ? "end" : token) + " in: " + query);
+            }
+            if (token.equals("(")) {
+                final Node inner = parseOr();
+                if (!")".equals(next())) {
+                    throw new IllegalArgumentException("missing ) in: " + query);
+                }
+                return inner;
+            }
+            final String text = token.startsWith("\"") ? token.substring(1, token.length() - 1) : token;
+            final List<String> words = new ArrayList<String>();
+            final WordTokenizer tokens = new WordTokenizer().reset(text);
+            while (tokens.next()) {
+                words.add(text.substring(tokens.start(), tokens.end()).toLowerCase());
+            }
+            return new Phrase(Collections.unmodifiableList(words));
+        }
+    }
+}
@@ -0,0 +1,320 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mutable tracker of the most mentioned users over a sliding time window, in
+ * fixed memory.
+ *
+ * The window is divided into equal time buckets. Each bucket counts the
+ * mentions sent during it in its own count-min sketch, and a window sketch
+ * holds the sum of the live buckets; when a bucket falls out of the window its
+ * counts are subtracted from the window sketch and it is reused. A sketch
+ * never undercounts, and overcounts by a fraction of the window's total
+ * mentions that shrinks with its width.
+ *
+ * The heavy hitters are tracked Space-Saving style in a fixed-capacity
+ * indexed min-heap of candidates keyed by their window estimate: a user who
+ * isn't a candidate replaces the weakest candidate once their estimate
+ * exceeds it. Top-K queries only rank the candidates.
+ *
+ * Mentions follow Extract.getMentionedUsers: each tweet counts at most once
+ * for each user it mentions, ignoring case. A tracker is not thread-safe.
+ */
+public class TrendingMentions {
+
+    private static final int DEFAULT_WIDTH = 2048;
+    private static final int DEFAULT_DEPTH = 4;
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private final long bucketMillis;
+    private final int width;
+    private final int depth;
+    private final long[] bucketIds;
+    private final int[][] buckets;
+    private final int[] window;
+    private long current = Long.MIN_VALUE;
+
+    private final String[] heapNames;
+    private final int[] heapCounts;
+    private int heapSize;
+    private final Map<String, Integer> heapPositions = new HashMap<String, Integer>();
+
+    private final MentionScanner scanner = new MentionScanner();
+    private final Set<String> mentioned = new HashSet<String>();
+    // Abstraction function:
+    //   represents the multiset of (user, tweet) mentions whose tweet was sent
+    //   in time buckets current - bucketIds.length + 1 .. current, where time
+    //   bucket b covers [b * bucketMillis, (b + 1) * bucketMillis) epoch millis,
+    //   approximated by count-min sketches; and the candidate heavy hitters
+    //   heapNames[0..heapSize)
+    // Rep invariant:
+    //   width is a power of two; every sketch has depth * width counters
+    //   slot s holds time bucket bucketIds[s], with bucketIds[s] % slots == s,
+    //   bucketIds[s] <= current, or Long.MIN_VALUE and all zero if unused
+    //   window[i] == sum of buckets[s][i] over the slots
+    //   heapNames[0..heapSize) are distinct, lower-case, heapSize <= heapNames.length
+    //   heapPositions maps heapNames[p] to p, and nothing else
+    //   heapCounts is a min-heap, heapCounts[p] == estimate(heapNames[p])
+    //   as of the last mention of heapNames[p] or the last bucket expiry
+    // Safety from rep exposure:
+    //   all fields are private; only Strings are returned
+
+    /**
+     * Make a tracker with 4 x 2048 sketches and 256 candidates.
+     *
+     * @param window length of the sliding window, at least buckets milliseconds
+     * @param buckets number of time buckets the window is divided into, >= 1;
+     *                tweets age out of the window one bucket at a time
+     */
+    public TrendingMentions(Duration window, int buckets) {
+        this(window, buckets, DEFAULT_WIDTH, DEFAULT_DEPTH, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Make a tracker.
+     *
+     * @param window length of the sliding window, at least buckets milliseconds
+     * @param buckets number of time buckets the window is divided into, >= 1
+     * @param width counters per sketch row, a power of two
+     * @param depth rows per sketch, >= 1
+     * @param capacity number of candidate heavy hitters tracked, >= 1
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public TrendingMentions(Duration window, int buckets, int width, int depth, int capacity) {
+        if (buckets < 1 || window.toMillis() < buckets) {
+            throw new IllegalArgumentException("window " + window + " can't hold " + buckets + " buckets");
+        }
+        if (width < 1 || Integer.bitCount(width) != 1 || depth < 1 || capacity < 1) {
+            throw new IllegalArgumentException("bad sketch " + depth + " x " + width + " or capacity " + capacity);
+        }
+        this.bucketMillis = window.toMillis() / buckets;
+        this.width = width;
+        this.depth = depth;
+        this.bucketIds = new long[buckets];
+        Arrays.fill(bucketIds, Long.MIN_VALUE);
+        this.buckets = new int[buckets][depth * width];
+        this.window = new int[depth * width];
+        this.heapNames = new String[capacity];
+        this.heapCounts = new int[capacity];
+    }
+
+    /**
+     * Count the mentions in a tweet, if it was sent within the window that
+     * ends at the latest time seen so far; tweets sent later move the window
+     * forward.
+     *
+     * @param tweet a tweet
+     */
+    public void accept(Tweet tweet) {
+        final long bucket = Math.floorDiv(tweet.getTimestamp().toEpochMilli(), bucketMillis);
+        advance(bucket);
+        if (bucket <= current - bucketIds.length) {
+            return;
+        }
+        final int[] sketch = buckets[slotOf(bucket)];
+        mentioned.clear();
+        scanner.collect(tweet.getText(), mentioned);
+        for (String user : mentioned) {
+            final int hash = hash(user);
+            int estimate = Integer.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                final int i = index(hash, row);
+                sketch[i]++;
+                estimate = Math.min(estimate, ++window[i]);
+            }
+            offer(user, estimate);
+        }
+    }
+
+    /**
+     * Move the window forward so that it ends at a given time, dropping the
+     * mentions that fall out of it.
+     *
+     * @param now a time; times earlier than the latest seen are ignored
+     */
+    public void advanceTo(Instant now) {
+        advance(Math.floorDiv(now.toEpochMilli(), bucketMillis));
+    }
+
+    /**
+     * @param username Twitter username
+     * @return an estimate of the number of tweets in the window that mention
+     *         username, ignoring case; never less than the true number
+     */
+    public int estimate(String username) {
+        return estimate(hash(username.toLowerCase()));
+    }
+
+    /**
+     * Find the most mentioned users in the window.
+     *
+     * @param k number of users wanted, >= 0
+     * @return at most k users, lower-case, in descending order of their
+     *         estimated mention count, users with equal estimates in
+     *         alphabetical order; users mentioned in the window but never
+     *         among the tracked candidates are not reported
+     */
+    public List<String> top(int k) {
+        final Integer[] positions = new Integer[heapSize];
+        for (int p = 0; p < heapSize; p++) {
+            positions[p] = p;
+        }
+        Arrays.sort(positions, (a, b) -> heapCounts[a] != heapCounts[b]
+                ? Integer.compare(heapCounts[b], heapCounts[a])
+                : heapNames[a].compareTo(heapNames[b]));
+        final List<String> top = new ArrayList<String>(Math.min(k, heapSize));
+        for (int i = 0; i < positions.length && top.size() < k; i++) {
+            if (heapCounts[positions[i]] > 0) {
+                top.add(heapNames[positions[i]]);
+            }
+        }
+        return top;
+    }
+
+    /*
+     * Make bucket the last bucket of the window, if it is later than current.
+     */
+    private void advance(long bucket) {
+        if (bucket <= current) {
+            return;
+        }
+        final int slots = bucketIds.length;
+        if (current == Long.MIN_VALUE || bucket - current >= slots) {
+            for (int s = 0; s < slots; s++) {
+                Arrays.fill(buckets[s], 0);
+                bucketIds[s] = Long.MIN_VALUE;
+            }
+            Arrays.fill(window, 0);
+        } else {
+            for (long b = current + 1; b <= bucket; b++) {
+                final int s = slotOf(b);
+                if (bucketIds[s] != Long.MIN_VALUE) {
+                    final int[] expired = buckets[s];
+                    for (int i = 0; i < window.length; i++) {
+                        window[i] -= expired[i];
+                    }
+                    Arrays.fill(expired, 0);
+                }
+                bucketIds[s] = Long.MIN_VALUE;
+            }
+        }
+        for (long b = Math.max(bucket - slots + 1, current + 1); b <= bucket; b++) {
+            bucketIds[slotOf(b)] = b;
+        }
+        current = bucket;
+        refreshCandidates();
+    }
+
+    private int slotOf(long bucket) {
+        return (int) Math.floorMod(bucket, (long) bucketIds.length);
+    }
+
+    /*
+     * Re-key every candidate with its current estimate, after counts expired.
+     */
+    private void refreshCandidates() {
+        for (int p = 0; p < heapSize; p++) {
+            heapCounts[p] = estimate(hash(heapNames[p]));
+        }
+        for (int p = heapSize / 2 - 1; p >= 0; p--) {
+            siftDown(p);
+        }
+    }
+
+    /*
+     * Record that user's window estimate has risen to estimate.
+     */
+    private void offer(String user, int estimate) {
+        final Integer position = heapPositions.get(user);
+        if (position != null) {
+            heapCounts[position] = estimate;
+            siftDown(position);
+        } else if (heapSize < heapNames.length) {
+            place(heapSize++, user, estimate);
+            siftUp(heapSize - 1);
+        } else if (estimate > heapCounts[0]) {
+            heapPositions.remove(heapNames[0]);
+            place(0, user, estimate);
+            siftDown(0);
+        }
+    }
+
+    private void place(int position, String user, int count) {
+        heapNames[position] = user;
+        heapCounts[position] = count;
+        heapPositions.put(user, position);
+    }
+
+    private void siftUp(int position) {
+        final String user = heapNames[position];
+        final int count = heapCounts[position];
+        while (position > 0) {
+            final int parent = (position - 1) >>> 1;
+            if (heapCounts[parent] <= count) {
+                break;
+            }
+            place(position, heapNames[parent], heapCounts[parent]);
+            position = parent;
+        }
+        place(position, user, count);
+    }
+
+    private void siftDown(int position) {
+        final String user = heapNames[position];
+        final int count = heapCounts[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapCounts[child + 1] < heapCounts[child]) {
+                child++;
+            }
+            if (heapCounts[child] >= count) {
+                break;
+            }
+            place(position, heapNames[child], heapCounts[child]);
+            position = child;
+        }
+        place(position, user, count);
+    }
+
+    private int estimate(int hash) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, window[index(hash, row)]);
+        }
+        return estimate;
+    }
+
+    /*
+     * @return the counter of row for a username with the given hash, using
+     *         double hashing to derive the rows' independent-enough hashes
+     */
+    private int index(int hash, int row) {
+        final int step = (hash >>> 16) | 1;
+        return row * width + ((hash + row * step) & (width - 1));
+    }
+
+    private static int hash(String lowerName) {
+        int hash = lowerName.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
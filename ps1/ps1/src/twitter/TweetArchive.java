@@ -0,0 +1,346 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of tweets backed by a memory-mapped binary columnar file.
+ *
+ * The file stores one column per field:
+ * <ul><li> ids and timestamps (epoch milliseconds) as zigzag varint deltas,
+ *          restarting from an absolute value every BLOCK_SIZE rows so that
+ *          any row can be found without decoding the whole column;
+ *     <li> authors as a dictionary of distinct names plus a fixed-width
+ *          column of dictionary indexes;
+ *     <li> texts as one UTF-8 blob plus a fixed-width column of offsets. </ul>
+ * Opening an archive maps the file and reads only its header and author
+ * dictionary; each Tweet is decoded when it is asked for. Timestamps are kept
+ * to the millisecond, which is finer than Twitter reports them. An archive
+ * file is limited to 2GB.
+ */
+public class TweetArchive extends AbstractList<Tweet> implements RandomAccess {
+
+    private static final int MAGIC = 0x54574131; // "TWA1"
+    private static final int BLOCK_SIZE = 64;
+    private static final int HEADER_SIZE = 4 * 4 + 6 * 8;
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final String[] authors;
+    private final int idsAt;
+    private final int timesAt;
+    private final int authorColumnAt;
+    private final int textOffsetsAt;
+    private final int textAt;
+    // Abstraction function:
+    //   represents the list of tweets stored in buffer, in row order
+    // Rep invariant:
+    //   buffer holds a well-formed archive of size rows, and the *At fields
+    //   are the absolute positions of its sections
+    // Safety from rep exposure:
+    //   all fields are private and final; buffer is only read with absolute
+    //   gets or through duplicates, so concurrent readers don't interfere
+
+    private TweetArchive(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("not a tweet archive");
+        }
+        this.size = buffer.getInt(4);
+        final int authorCount = buffer.getInt(12);
+        this.idsAt = (int) buffer.getLong(16);
+        this.timesAt = (int) buffer.getLong(24);
+        final int dictionaryAt = (int) buffer.getLong(32);
+        this.authorColumnAt = (int) buffer.getLong(40);
+        this.textOffsetsAt = (int) buffer.getLong(48);
+        this.textAt = (int) buffer.getLong(56);
+
+        this.authors = new String[authorCount];
+        int position = dictionaryAt;
+        for (int i = 0; i < authorCount; i++) {
+            final int length = buffer.getInt(position);
+            authors[i] = decodeUtf8(position + 4, length);
+            position += 4 + length;
+        }
+    }
+
+    /**
+     * Open an archive written by write().
+     *
+     * @param file path of the archive
+     * @return the tweets in the archive, in the order they were written
+     * @throws IOException if the file can't be read or is not an archive
+     */
+    public static TweetArchive open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new TweetArchive(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Check whether a file starts like an archive written by write().
+     *
+     * @param file path of a regular file
+     * @return true iff the file begins with the archive header's magic number
+     * @throws IOException if the file can't be read
+     */
+    public static boolean isArchive(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer magic = ByteBuffer.allocate(4);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // keep reading until 4 bytes or end of file
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Write tweets to an archive file, replacing it if it exists.
+     *
+     * @param tweets tweets to write, not modified by this method
+     * @param file path of the archive
+     * @throws IOException if the file can't be written, or the archive would
+     *                     exceed 2GB
+     */
+    public static void write(List<Tweet> tweets, Path file) throws IOException {
+        final int count = tweets.size();
+        final ByteArrayOutputStream ids = new ByteArrayOutputStream();
+        final ByteArrayOutputStream times = new ByteArrayOutputStream();
+        final ByteArrayOutputStream dictionary = new ByteArrayOutputStream();
+        final ByteArrayOutputStream authorColumn = new ByteArrayOutputStream(4 * count);
+        final ByteArrayOutputStream textOffsets = new ByteArrayOutputStream(4 * (count + 1));
+        final ByteArrayOutputStream text = new ByteArrayOutputStream();
+
+        final long[] idValues = new long[count];
+        final long[] timeValues = new long[count];
+        final Map<String, Integer> authorIds = new HashMap<String, Integer>();
+        final DataOutputStream dictionaryOut = new DataOutputStream(dictionary);
+        final DataOutputStream authorOut = new DataOutputStream(authorColumn);
+        final DataOutputStream offsetOut = new DataOutputStream(textOffsets);
+        for (int i = 0; i < count; i++) {
+            final Tweet tweet = tweets.get(i);
+            idValues[i] = tweet.getId();
+            timeValues[i] = tweet.getTimestamp().toEpochMilli();
+            Integer author = authorIds.get(tweet.getAuthor());
+            if (author == null) {
+                author = authorIds.size();
+                authorIds.put(tweet.getAuthor(), author);
+                final byte[] name = tweet.getAuthor().getBytes(StandardCharsets.UTF_8);
+                dictionaryOut.writeInt(name.length);
+                dictionaryOut.write(name);
+            }
+            authorOut.writeInt(author);
+            offsetOut.writeInt(text.size());
+            text.write(tweet.getText().getBytes(StandardCharsets.UTF_8));
+        }
+        offsetOut.writeInt(text.size());
+        writeDeltaColumn(idValues, ids);
+        writeDeltaColumn(timeValues, times);
+
+        final long idsAt = HEADER_SIZE;
+        final long timesAt = idsAt + ids.size();
+        final long dictionaryAt = timesAt + times.size();
+        final long authorColumnAt = dictionaryAt + dictionary.size();
+        final long textOffsetsAt = authorColumnAt + authorColumn.size();
+        final long textAt = textOffsetsAt + textOffsets.size();
+        if (textAt + text.size() > Integer.MAX_VALUE) {
+            throw new IOException("archive would exceed 2GB");
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(count);
+            out.writeInt(BLOCK_SIZE);
+            out.writeInt(authorIds.size());
+            for (long offset : new long[] { idsAt, timesAt, dictionaryAt, authorColumnAt, textOffsetsAt, textAt }) {
+                out.writeLong(offset);
+            }
+            ids.writeTo(out);
+            times.writeTo(out);
+            dictionary.writeTo(out);
+            authorColumn.writeTo(out);
+            textOffsets.writeTo(out);
+            text.writeTo(out);
+        }
+    }
+
+    /*
+     * Write a delta column: a block table of (absolute first value, int offset
+     * of the block's varints), then each block's remaining values as zigzag
+     * varint deltas from their predecessor.
+     */
+    private static void writeDeltaColumn(long[] values, ByteArrayOutputStream column) throws IOException {
+        final int blocks = (values.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        final ByteArrayOutputStream deltas = new ByteArrayOutputStream();
+        final DataOutputStream table = new DataOutputStream(column);
+        for (int block = 0; block < blocks; block++) {
+            final int first = block * BLOCK_SIZE;
+            table.writeLong(values[first]);
+            table.writeInt(deltas.size());
+            for (int i = first + 1; i < Math.min(first + BLOCK_SIZE, values.length); i++) {
+                writeVarint(zigzag(values[i] - values[i - 1]), deltas);
+            }
+        }
+        deltas.writeTo(column);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(long value, OutputStream out) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    @Override public int size() {
+        return size;
+    }
+
+    @Override public Tweet get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " of " + size);
+        }
+        return tweetAt(index, deltaValue(idsAt, index), deltaValue(timesAt, index));
+    }
+
+    /*
+     * Decode the value at row index of a delta column.
+     */
+    private long deltaValue(int columnAt, int index) {
+        final int block = index / BLOCK_SIZE;
+        final int tableEntry = columnAt + block * 12;
+        long value = buffer.getLong(tableEntry);
+        int position = deltasAt(columnAt) + buffer.getInt(tableEntry + 8);
+        for (int i = block * BLOCK_SIZE; i < index; i++) {
+            long raw = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(position++);
+                raw |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            value += unzigzag(raw);
+        }
+        return value;
+    }
+
+    private int deltasAt(int columnAt) {
+        return columnAt + ((size + BLOCK_SIZE - 1) / BLOCK_SIZE) * 12;
+    }
+
+    private Tweet tweetAt(int index, long id, long millis) {
+        final String author = authors[buffer.getInt(authorColumnAt + 4 * index)];
+        final int start = buffer.getInt(textOffsetsAt + 4 * index);
+        final int end = buffer.getInt(textOffsetsAt + 4 * (index + 1));
+        return new Tweet(id, author, decodeUtf8(textAt + start, end - start), Instant.ofEpochMilli(millis));
+    }
+
+    private String decodeUtf8(int position, int length) {
+        final byte[] bytes = new byte[length];
+        final ByteBuffer view = buffer.duplicate();
+        view.position(position);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Find every username-mention in the archived texts, reading their
+     * mapped UTF-8 bytes through a ByteText without decoding them.
+     *
+     * @param listener called with the bounds of each mentioned username, as
+     *                 in MentionScanner.scan, row by row in order; the text
+     *                 it is given is a view of the archived bytes that is
+     *                 only valid during the call
+     */
+    public void scanMentions(MentionScanner.MentionListener listener) {
+        final ByteText view = new ByteText(buffer);
+        int end = buffer.getInt(textOffsetsAt);
+        for (int index = 0; index < size; index++) {
+            final int start = end;
+            end = buffer.getInt(textOffsetsAt + 4 * (index + 1));
+            MentionScanner.scan(view.range(textAt + start, textAt + end), listener);
+        }
+    }
+
+    /**
+     * @return an iterator that decodes the id and timestamp columns
+     *         sequentially, so each tweet costs one varint per column
+     */
+    @Override public Iterator<Tweet> iterator() {
+        return new Iterator<Tweet>() {
+            private int index = 0;
+            private long id;
+            private long millis;
+            private int idPosition;
+            private int timePosition;
+
+            @Override public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override public Tweet next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (index % BLOCK_SIZE == 0) {
+                    final int entry = (index / BLOCK_SIZE) * 12;
+                    id = buffer.getLong(idsAt + entry);
+                    millis = buffer.getLong(timesAt + entry);
+                    idPosition = deltasAt(idsAt) + buffer.getInt(idsAt + entry + 8);
+                    timePosition = deltasAt(timesAt) + buffer.getInt(timesAt + entry + 8);
+                } else {
+                    id += unzigzag(readVarint(true));
+                    millis += unzigzag(readVarint(false));
+                }
+                return tweetAt(index++, id, millis);
+            }
+
+            private long readVarint(boolean idColumn) {
+                int position = idColumn ? idPosition : timePosition;
+                long raw = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = buffer.get(position++);
+                    raw |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                if (idColumn) {
+                    idPosition = position;
+                } else {
+                    timePosition = position;
+                }
+                return raw;
+            }
+        };
+    }
+}
@@ -0,0 +1,375 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mutable, append-only, compact in-memory store of tweets.
+ *
+ * Instead of one Tweet object per tweet, with its Instant and two Strings of
+ * UTF-16 text, an arena keeps its tweets in columns: ids and timestamps in
+ * primitive arrays, each author as an int into a table of distinct author
+ * names, and all the texts as UTF-8 in one growing byte array, delimited by
+ * an array of offsets. A tweet costs 28 bytes plus its UTF-8 text, and a
+ * Tweet is only made when one is asked for.
+ *
+ * Tweets are numbered by ordinal, in the order they were appended. Mentions
+ * and words are matched directly on the stored bytes through a ByteText,
+ * without decoding the texts; all of them are ASCII, and in UTF-8 every byte
+ * of a non-ASCII character is outside ASCII, so it can never be mistaken for
+ * one.
+ *
+ * The texts must fit in one Java array, which limits an arena to about 2 GB
+ * of text. An arena is not thread-safe.
+ */
+public class TweetArena {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] seconds = new long[INITIAL_CAPACITY];
+    private int[] nanos = new int[INITIAL_CAPACITY];
+    private int[] authors = new int[INITIAL_CAPACITY];
+    private int[] textEnds = new int[INITIAL_CAPACITY];
+    private byte[] text = new byte[INITIAL_CAPACITY * 64];
+    private int size;
+
+    private final List<String> authorNames = new ArrayList<String>();
+    private final Map<String, Integer> authorIds = new HashMap<String, Integer>();
+    private final SymbolTable users = new SymbolTable();
+    private int[] authorUsers = new int[INITIAL_CAPACITY];
+    // Abstraction function:
+    //   represents the sequence of tweets t_0 .. t_(size-1), where t_i has
+    //   id ids[i], timestamp seconds[i] + nanos[i] nanoseconds after the
+    //   epoch, author authorNames.get(authors[i]), and text the UTF-8
+    //   decoding of text[textStart(i), textEnds[i]), where textStart(0) == 0
+    //   and textStart(i) == textEnds[i - 1]
+    // Rep invariant:
+    //   ids, seconds, nanos, authors, textEnds all have length >= size
+    //   0 <= nanos[i] < 1,000,000,000
+    //   0 <= authors[i] < authorNames.size()
+    //   textEnds[0..size) is nondecreasing and textEnds[size - 1] <= text.length
+    //   authorNames are distinct, and authorIds maps authorNames.get(a) to a
+    //   authorUsers.length >= authorNames.size(), and authorUsers[a] is the id
+    //   of authorNames.get(a) in users
+    // Safety from rep exposure:
+    //   all fields are private; arrays, lists and the symbol table are never
+    //   returned; tweets handed out are new immutable Tweets
+
+    /**
+     * Make an empty arena.
+     */
+    public TweetArena() {
+    }
+
+    /**
+     * Make an arena holding some tweets.
+     *
+     * @param tweets tweets to store, in ordinal order; not modified
+     */
+    public TweetArena(List<Tweet> tweets) {
+        appendAll(tweets);
+    }
+
+    /**
+     * Append a tweet.
+     *
+     * @param tweet tweet to append
+     * @return the ordinal of the tweet
+     * @throws IllegalStateException if the arena has no room for its text
+     */
+    public int append(Tweet tweet) {
+        if (size == ids.length) {
+            final int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            seconds = Arrays.copyOf(seconds, capacity);
+            nanos = Arrays.copyOf(nanos, capacity);
+            authors = Arrays.copyOf(authors, capacity);
+            textEnds = Arrays.copyOf(textEnds, capacity);
+        }
+        final byte[] encoded = tweet.getText().getBytes(StandardCharsets.UTF_8);
+        final int start = textStart(size);
+        if (encoded.length > Integer.MAX_VALUE - 8 - start) {
+            throw new IllegalStateException("arena is full at " + start + " bytes of text");
+        }
+        if (start + encoded.length > text.length) {
+            final long capacity = Math.max(start + encoded.length, text.length * 2L);
+            text = Arrays.copyOf(text, (int) Math.min(capacity, Integer.MAX_VALUE - 8));
+        }
+        System.arraycopy(encoded, 0, text, start, encoded.length);
+
+        ids[size] = tweet.getId();
+        seconds[size] = tweet.getTimestamp().getEpochSecond();
+        nanos[size] = tweet.getTimestamp().getNano();
+        authors[size] = authorOf(tweet.getAuthor());
+        textEnds[size] = start + encoded.length;
+        return size++;
+    }
+
+    /**
+     * Append a batch of tweets, giving them consecutive ordinals in list order.
+     *
+     * @param batch tweets to append; not modified
+     * @throws IllegalStateException if the arena has no room for their text,
+     *                               in which case a prefix of the batch may
+     *                               have been appended
+     */
+    public void appendAll(List<Tweet> batch) {
+        for (Tweet tweet : batch) {
+            append(tweet);
+        }
+    }
+
+    /*
+     * @return the index in authorNames of an author, adding it if new
+     */
+    private int authorOf(String author) {
+        final Integer known = authorIds.get(author);
+        if (known != null) {
+            return known;
+        }
+        final int id = authorNames.size();
+        authorNames.add(author);
+        authorIds.put(author, id);
+        if (id == authorUsers.length) {
+            authorUsers = Arrays.copyOf(authorUsers, id * 2);
+        }
+        authorUsers[id] = users.intern(author);
+        return id;
+    }
+
+    private int textStart(int ordinal) {
+        return ordinal == 0 ? 0 : textEnds[ordinal - 1];
+    }
+
+    /**
+     * @return number of tweets in the arena
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return number of bytes of UTF-8 text stored
+     */
+    public long textBytes() {
+        return textStart(size);
+    }
+
+    /**
+     * Make a Tweet of a stored tweet, decoding its text.
+     *
+     * @param ordinal ordinal of a tweet
+     * @return a tweet equal to the one appended with that ordinal
+     * @throws IndexOutOfBoundsException if ordinal is not in [0, size())
+     */
+    public Tweet get(int ordinal) {
+        checkOrdinal(ordinal);
+        return new Tweet(ids[ordinal], authorNames.get(authors[ordinal]), getText(ordinal), timestamp(ordinal));
+    }
+
+    private void checkOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= size) {
+            throw new IndexOutOfBoundsException("no tweet " + ordinal + " in arena of " + size);
+        }
+    }
+
+    /**
+     * @param ordinal ordinal of a tweet
+     * @return the id of that tweet
+     * @throws IndexOutOfBoundsException if ordinal is not in [0, size())
+     */
+    public long getId(int ordinal) {
+        checkOrdinal(ordinal);
+        return ids[ordinal];
+    }
+
+    /**
+     * @param ordinal ordinal of a tweet
+     * @return the author of that tweet, in the case it was appended with
+     * @throws IndexOutOfBoundsException if ordinal is not in [0, size())
+     */
+    public String getAuthor(int ordinal) {
+        checkOrdinal(ordinal);
+        return authorNames.get(authors[ordinal]);
+    }
+
+    /**
+     * @param ordinal ordinal of a tweet
+     * @return the text of that tweet, decoded from UTF-8
+     * @throws IndexOutOfBoundsException if ordinal is not in [0, size())
+     */
+    public String getText(int ordinal) {
+        checkOrdinal(ordinal);
+        final int start = textStart(ordinal);
+        return new String(text, start, textEnds[ordinal] - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param ordinal ordinal of a tweet
+     * @return the timestamp of that tweet
+     * @throws IndexOutOfBoundsException if ordinal is not in [0, size())
+     */
+    public Instant getTimestamp(int ordinal) {
+        checkOrdinal(ordinal);
+        return timestamp(ordinal);
+    }
+
+    private Instant timestamp(int ordinal) {
+        return Instant.ofEpochSecond(seconds[ordinal], nanos[ordinal]);
+    }
+
+    /**
+     * @param ordinals ordinals of tweets in this arena
+     * @return the tweets with those ordinals, in the same order
+     * @throws IndexOutOfBoundsException if an ordinal is not in [0, size())
+     */
+    public List<Tweet> tweetsAt(int[] ordinals) {
+        final List<Tweet> result = new ArrayList<Tweet>(ordinals.length);
+        for (int ordinal : ordinals) {
+            result.add(get(ordinal));
+        }
+        return result;
+    }
+
+    /**
+     * View the arena as a list, for code that takes a list of tweets.
+     *
+     * @return an unmodifiable list whose element i is get(i), made each time
+     *         it is asked for; the list sees later appends
+     */
+    public List<Tweet> asList() {
+        return new AbstractList<Tweet>() {
+            @Override public Tweet get(int index) {
+                return TweetArena.this.get(index);
+            }
+
+            @Override public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Get the time period spanned by the stored tweets.
+     *
+     * @return a minimum-length time interval that contains the timestamp of
+     *         every stored tweet. Requires size() > 0.
+     */
+    public Timespan getTimespan() {
+        if (size == 0) {
+            throw new IllegalStateException("requires a nonempty arena");
+        }
+        int first = 0;
+        int last = 0;
+        for (int i = 1; i < size; i++) {
+            if (compareTime(i, seconds[first], nanos[first]) < 0) {
+                first = i;
+            } else if (compareTime(i, seconds[last], nanos[last]) > 0) {
+                last = i;
+            }
+        }
+        return new Timespan(timestamp(first), timestamp(last));
+    }
+
+    /*
+     * @return negative, zero or positive as the timestamp of a tweet is
+     *         before, at or after the given time
+     */
+    private int compareTime(int ordinal, long second, int nano) {
+        final int bySecond = Long.compare(seconds[ordinal], second);
+        return bySecond != 0 ? bySecond : Integer.compare(nanos[ordinal], nano);
+    }
+
+    /**
+     * Find the tweets written by a user.
+     *
+     * @param username Twitter username, compared case-insensitively
+     * @return the ordinals of all and only the tweets whose author is
+     *         username, in increasing order
+     */
+    public int[] writtenBy(String username) {
+        final int user = users.find(username);
+        if (user < 0) {
+            return new int[0];
+        }
+        final int[] ordinals = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (authorUsers[authors[i]] == user) {
+                ordinals[count++] = i;
+            }
+        }
+        return Arrays.copyOf(ordinals, count);
+    }
+
+    /**
+     * Find the tweets sent during a timespan, endpoints included.
+     *
+     * @param timespan timespan
+     * @return the ordinals of all and only the tweets sent during timespan,
+     *         in increasing order
+     */
+    public int[] inTimespan(Timespan timespan) {
+        final long startSecond = timespan.getStart().getEpochSecond();
+        final int startNano = timespan.getStart().getNano();
+        final long endSecond = timespan.getEnd().getEpochSecond();
+        final int endNano = timespan.getEnd().getNano();
+        final int[] ordinals = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (compareTime(i, startSecond, startNano) >= 0 && compareTime(i, endSecond, endNano) <= 0) {
+                ordinals[count++] = i;
+            }
+        }
+        return Arrays.copyOf(ordinals, count);
+    }
+
+    /**
+     * Find the tweets that contain certain words, with the same notion of word
+     * as TweetIndex, without decoding their texts.
+     *
+     * @param words words to search for, compared case-insensitively
+     * @return the ordinals of all and only the tweets that contain at least
+     *         one of words, in increasing order
+     */
+    public int[] containing(List<String> words) {
+        final String[] lowerWords = new String[words.size()];
+        for (int i = 0; i < lowerWords.length; i++) {
+            lowerWords[i] = words.get(i).toLowerCase();
+        }
+        final ByteText view = new ByteText(text);
+        final int[] ordinals = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (TweetIndex.containsAny(view.range(textStart(i), textEnds[i]), lowerWords)) {
+                ordinals[count++] = i;
+            }
+        }
+        return Arrays.copyOf(ordinals, count);
+    }
+
+    /**
+     * Find every username-mention in the stored texts, without decoding them.
+     *
+     * @param listener called with the bounds of each mentioned username, as
+     *                 in MentionScanner.scan, tweet by tweet in ordinal
+     *                 order; the text it is given is a view of the stored
+     *                 bytes that is only valid during the call
+     */
+    public void scanMentions(MentionScanner.MentionListener listener) {
+        final ByteText view = new ByteText(text);
+        for (int i = 0; i < size; i++) {
+            MentionScanner.scan(view.range(textStart(i), textEnds[i]), listener);
+        }
+    }
+}
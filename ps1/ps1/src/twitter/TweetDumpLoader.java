@@ -0,0 +1,241 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Bulk loader for a directory of tweet dump files.
+ *
+ * Every file in the directory whose name ends in ".json" is parsed as a JSON
+ * array of tweets, as served by the sample server; every other file that is
+ * a TweetArchive is decoded. Files are read concurrently, one task per file,
+ * by a fixed number of threads. Once every file is read, their tweets are
+ * appended to a TweetStore in one batch, in file-name order, skipping tweets
+ * whose id was already loaded or was already in the store.
+ */
+public class TweetDumpLoader {
+
+    private static final String JSON_SUFFIX = ".json";
+
+    private final int concurrency;
+    // Rep invariant:
+    //   concurrency > 0
+
+    /**
+     * Make a loader.
+     *
+     * @param concurrency maximum number of files read at once, > 0
+     * @throws IllegalArgumentException if concurrency is not positive
+     */
+    public TweetDumpLoader(int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency must be positive: " + concurrency);
+        }
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Load every dump file in a directory into a store.
+     *
+     * @param directory directory of dump files; subdirectories are ignored
+     * @param store store to append the loaded tweets to
+     * @return a report of what was loaded from each file
+     * @throws IOException if the directory or any dump file can't be read or
+     *                     parsed, in which case the store is unchanged
+     * @throws InterruptedException if interrupted while waiting for the files
+     */
+    public LoadReport load(Path directory, TweetStore store) throws IOException, InterruptedException {
+        final List<Path> files = new ArrayList<Path>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                if (Files.isRegularFile(entry)) {
+                    files.add(entry);
+                }
+            }
+        }
+        Collections.sort(files);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, Math.max(1, files.size())));
+        final List<FileResult> results = new ArrayList<FileResult>();
+        try {
+            final List<Future<FileResult>> futures = new ArrayList<Future<FileResult>>();
+            for (Path file : files) {
+                futures.add(executor.submit(() -> readFile(file)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    final FileResult result = futures.get(i).get();
+                    if (result != null) {
+                        results.add(result);
+                    }
+                } catch (ExecutionException ee) {
+                    final Throwable cause = ee.getCause();
+                    throw new IOException("can't load " + files.get(i) + ": " + cause.getMessage(), cause);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int total = store.size();
+        for (FileResult result : results) {
+            total += result.tweets.size();
+        }
+        final LongHashSet seen = new LongHashSet(Math.max(1, total));
+        for (int ordinal = 0; ordinal < store.size(); ordinal++) {
+            seen.add(store.get(ordinal).getId());
+        }
+        final List<Tweet> batch = new ArrayList<Tweet>();
+        final List<FileMetrics> metrics = new ArrayList<FileMetrics>();
+        int duplicates = 0;
+        for (FileResult result : results) {
+            int kept = 0;
+            for (Tweet tweet : result.tweets) {
+                if (seen.add(tweet.getId())) {
+                    batch.add(tweet);
+                    kept++;
+                }
+            }
+            duplicates += result.tweets.size() - kept;
+            metrics.add(new FileMetrics(result.file, result.bytes, result.tweets.size(), kept, result.nanos));
+        }
+        store.appendAll(batch);
+        return new LoadReport(metrics, batch.size(), duplicates);
+    }
+
+    /*
+     * Read one dump file.
+     *
+     * @return its tweets and timing, or null if it is not a dump file
+     */
+    private static FileResult readFile(Path file) throws IOException {
+        final long start = System.nanoTime();
+        final List<Tweet> tweets;
+        if (file.getFileName().toString().endsWith(JSON_SUFFIX)) {
+            tweets = new ArrayList<Tweet>();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                new TweetStreamReader(reader).forEachRemaining(tweets::add);
+            }
+        } else if (TweetArchive.isArchive(file)) {
+            tweets = new ArrayList<Tweet>(TweetArchive.open(file));
+        } else {
+            return null;
+        }
+        return new FileResult(file, Files.size(file), tweets, System.nanoTime() - start);
+    }
+
+    /*
+     * The tweets read from one file.
+     */
+    private static class FileResult {
+        private final Path file;
+        private final long bytes;
+        private final List<Tweet> tweets;
+        private final long nanos;
+
+        FileResult(Path file, long bytes, List<Tweet> tweets, long nanos) {
+            this.file = file;
+            this.bytes = bytes;
+            this.tweets = tweets;
+            this.nanos = nanos;
+        }
+    }
+
+    /**
+     * Immutable metrics of loading one file.
+     */
+    public static class FileMetrics {
+        private final Path file;
+        private final long bytes;
+        private final int tweets;
+        private final int loaded;
+        private final long nanos;
+
+        FileMetrics(Path file, long bytes, int tweets, int loaded, long nanos) {
+            this.file = file;
+            this.bytes = bytes;
+            this.tweets = tweets;
+            this.loaded = loaded;
+            this.nanos = nanos;
+        }
+
+        /** @return path of the file */
+        public Path getFile() {
+            return file;
+        }
+
+        /** @return size of the file in bytes */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /** @return number of tweets in the file */
+        public int getTweets() {
+            return tweets;
+        }
+
+        /** @return number of those tweets appended to the store, after deduplication */
+        public int getLoaded() {
+            return loaded;
+        }
+
+        /** @return wall-clock time spent reading and parsing the file, in nanoseconds */
+        public long getNanos() {
+            return nanos;
+        }
+
+        @Override public String toString() {
+            return file.getFileName() + ": " + tweets + " tweets (" + loaded + " new), "
+                    + bytes + " bytes in " + nanos / 1000000 + " ms";
+        }
+    }
+
+    /**
+     * Immutable summary of one load.
+     */
+    public static class LoadReport {
+        private final List<FileMetrics> files;
+        private final int loaded;
+        private final int duplicates;
+
+        LoadReport(List<FileMetrics> files, int loaded, int duplicates) {
+            this.files = Collections.unmodifiableList(new ArrayList<FileMetrics>(files));
+            this.loaded = loaded;
+            this.duplicates = duplicates;
+        }
+
+        /** @return metrics of each dump file read, in file-name order */
+        public List<FileMetrics> getFiles() {
+            return files;
+        }
+
+        /** @return number of tweets appended to the store */
+        public int getLoaded() {
+            return loaded;
+        }
+
+        /** @return number of tweets skipped because their id was already loaded */
+        public int getDuplicates() {
+            return duplicates;
+        }
+
+        @Override public String toString() {
+            return "loaded " + loaded + " tweets from " + files.size() + " files, skipped "
+                    + duplicates + " duplicates";
+        }
+    }
+}
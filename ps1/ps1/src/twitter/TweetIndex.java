@@ -0,0 +1,321 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mutable inverted index from words to the tweets that contain them.
+ *
+ * Tweets are numbered by ordinal, in the order they were added. Each tweet's
+ * text is tokenized exactly once, when it is added, by a WordTokenizer, with
+ * the same notion of word as Filter.containing: the text is split on spaces,
+ * and each piece contributes its first run of letters a-z or A-Z,
+ * lower-cased. Words are interned in a SymbolTable by the hash the tokenizer
+ * computes, so a String is only made for a word the index hasn't seen before.
+ * Every word maps to a positional posting list: the ordinals of the tweets
+ * containing it, kept sorted and free of duplicates, each with the positions
+ * at which the word occurs among that tweet's words. The positions let
+ * TextQuery answer phrase queries.
+ */
+public class TweetIndex {
+
+    private static final int[] NO_POSTINGS = new int[0];
+
+    private final List<Tweet> tweets = new ArrayList<Tweet>();
+    private final SymbolTable words = new SymbolTable();
+    private final List<Postings> postings = new ArrayList<Postings>();
+    private final WordTokenizer tokenizer = new WordTokenizer();
+    // Abstraction function:
+    //   represents the sequence of tweets, where tweets.get(i) has ordinal i,
+    //   together with the function
+    //   words.name(w) -> { i | tweet i contains words.name(w) }
+    // Rep invariant:
+    //   every word in words is a nonempty lower-case string of letters a-z
+    //   postings.size() == words.size()
+    //   every posting list is strictly increasing and within [0, tweets.size())
+    //   i is in postings[w] iff tokenize(tweets.get(i)) contains words.name(w)
+    //   p is a position of w in i iff tokenize(tweets.get(i)).get(p) == words.name(w)
+    // Safety from rep exposure:
+    //   all fields are private; posting lists are copied before being returned,
+    //   except to TextQuery through the package-private postingsOf; tokenizer
+    //   only holds the text of the tweet being added
+
+    /**
+     * Make an empty index.
+     */
+    public TweetIndex() {
+    }
+
+    /**
+     * Make an index over a list of tweets.
+     *
+     * @param tweets tweets to index, in ordinal order; not modified
+     */
+    public TweetIndex(List<Tweet> tweets) {
+        tweets.forEach(this::add);
+    }
+
+    /**
+     * Add a tweet to the index.
+     *
+     * @param tweet tweet to add
+     * @return the ordinal of the tweet
+     */
+    public int add(Tweet tweet) {
+        final int ordinal = tweets.size();
+        tweets.add(tweet);
+        final WordTokenizer tokens = tokenizer.reset(tweet.getText());
+        while (tokens.next()) {
+            final int word = words.intern(tweet.getText(), tokens.start(), tokens.end(), tokens.hash());
+            if (word == postings.size()) {
+                postings.add(new Postings());
+            }
+            postings.get(word).add(ordinal, tokens.position());
+        }
+        return ordinal;
+    }
+
+    /**
+     * Test one text for words without indexing it, with the same notion of
+     * word as the index.
+     *
+     * @param text text of a tweet
+     * @param words words to search for, compared case-insensitively
+     * @return true iff text contains at least one of words
+     */
+    public static boolean containsAny(String text, List<String> words) {
+        final String[] lowerWords = new String[words.size()];
+        for (int i = 0; i < lowerWords.length; i++) {
+            lowerWords[i] = words.get(i).toLowerCase();
+        }
+        return containsAny(text, lowerWords);
+    }
+
+    /*
+     * @param lowerWords lower-case words
+     * @return true iff text contains at least one of lowerWords
+     */
+    static boolean containsAny(CharSequence text, String[] lowerWords) {
+        final WordTokenizer tokens = new WordTokenizer().reset(text);
+        while (tokens.next()) {
+            for (String word : lowerWords) {
+                if (tokens.matches(word)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return number of tweets in the index
+     */
+    public int size() {
+        return tweets.size();
+    }
+
+    /**
+     * @param ordinal ordinal of a tweet, requires 0 <= ordinal < size()
+     * @return the tweet with that ordinal
+     */
+    public Tweet get(int ordinal) {
+        return tweets.get(ordinal);
+    }
+
+    /**
+     * Find the tweets that contain a word.
+     *
+     * @param word a word, compared case-insensitively
+     * @return the ordinals of the tweets containing word, in increasing order
+     */
+    public int[] postings(String word) {
+        final Postings list = postingsOf(word.toLowerCase());
+        return list == null ? NO_POSTINGS : Arrays.copyOf(list.ordinals, list.size);
+    }
+
+    /**
+     * Find the tweets that contain at least one of some words. Takes time
+     * proportional to the number of postings of those words, independent of
+     * the number of tweets in the index.
+     *
+     * @param words words to search for, compared case-insensitively
+     * @return the ordinals of the matching tweets, in increasing order and
+     *         without duplicates
+     */
+    public int[] containingAny(List<String> words) {
+        final List<Postings> lists = new ArrayList<Postings>(words.size());
+        int total = 0;
+        for (String word : words) {
+            final Postings list = postingsOf(word.toLowerCase());
+            if (list != null && !lists.contains(list)) {
+                lists.add(list);
+                total += list.size;
+            }
+        }
+        if (lists.isEmpty()) {
+            return NO_POSTINGS;
+        }
+        if (lists.size() == 1) {
+            return Arrays.copyOf(lists.get(0).ordinals, total);
+        }
+
+        final int[] union = new int[total];
+        int filled = 0;
+        for (Postings list : lists) {
+            System.arraycopy(list.ordinals, 0, union, filled, list.size);
+            filled += list.size;
+        }
+        Arrays.sort(union);
+        int distinct = 0;
+        for (int i = 0; i < union.length; i++) {
+            if (distinct == 0 || union[distinct - 1] != union[i]) {
+                union[distinct++] = union[i];
+            }
+        }
+        return Arrays.copyOf(union, distinct);
+    }
+
+    /**
+     * Bound the number of tweets that contain at least one of some words,
+     * without finding them.
+     *
+     * @param words words to search for, compared case-insensitively
+     * @return the total length of the posting lists of words, an upper bound
+     *         on the length of containingAny(words)
+     */
+    public int estimateContainingAny(List<String> words) {
+        int total = 0;
+        for (String word : words) {
+            final Postings list = postingsOf(word.toLowerCase());
+            total += list == null ? 0 : list.size;
+        }
+        return total;
+    }
+
+    /**
+     * Find the tweets that contain at least one of some words.
+     *
+     * @param words words to search for, compared case-insensitively
+     * @return the matching tweets, in ordinal order, each at most once
+     */
+    public List<Tweet> containing(List<String> words) {
+        return tweetsAt(containingAny(words));
+    }
+
+    /**
+     * @param ordinals ordinals of tweets in this index
+     * @return the tweets with those ordinals, in the same order
+     */
+    public List<Tweet> tweetsAt(int[] ordinals) {
+        final List<Tweet> result = new ArrayList<Tweet>(ordinals.length);
+        for (int ordinal : ordinals) {
+            result.add(tweets.get(ordinal));
+        }
+        return result;
+    }
+
+    /*
+     * @param lowerWord a lower-case word
+     * @return the posting list of lowerWord, or null if no tweet contains it;
+     *         callers must not modify it
+     */
+    Postings postingsOf(String lowerWord) {
+        final int word = words.find(lowerWord);
+        return word < 0 ? null : postings.get(word);
+    }
+
+    /**
+     * Find where a word occurs in a tweet.
+     *
+     * @param word a word, compared case-insensitively
+     * @param ordinal ordinal of a tweet, requires 0 <= ordinal < size()
+     * @return the positions of word among the words of that tweet, counting
+     *         from 0, in increasing order
+     */
+    public int[] positions(String word, int ordinal) {
+        final Postings list = postingsOf(word.toLowerCase());
+        if (list == null) {
+            return NO_POSTINGS;
+        }
+        final int entry = Arrays.binarySearch(list.ordinals, 0, list.size, ordinal);
+        return entry < 0 ? NO_POSTINGS
+                : Arrays.copyOfRange(list.positions, list.starts[entry], list.starts[entry + 1]);
+    }
+
+    /*
+     * Growable positional posting list: strictly increasing ordinals, each
+     * with the strictly increasing positions of the word in that tweet.
+     * Package-private for TextQuery, which reads it without copying.
+     */
+    static class Postings {
+        private int[] ordinals = new int[2];
+        private int size;
+        private int[] starts = new int[3];
+        private int[] positions = new int[2];
+        // Rep invariant:
+        //   ordinals[0..size) is strictly increasing
+        //   starts[0] == 0, starts[0..size] is strictly increasing, and the
+        //   positions of entry i are positions[starts[i]..starts[i+1]),
+        //   strictly increasing
+
+        /*
+         * Record that the word is at position in tweet ordinal; calls must be
+         * in increasing (ordinal, position) order.
+         */
+        void add(int ordinal, int position) {
+            if (size == 0 || ordinals[size - 1] != ordinal) {
+                if (size == ordinals.length) {
+                    ordinals = Arrays.copyOf(ordinals, size * 2);
+                    starts = Arrays.copyOf(starts, size * 2 + 1);
+                }
+                ordinals[size++] = ordinal;
+                starts[size] = starts[size - 1];
+            }
+            final int count = starts[size];
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            positions[count] = position;
+            starts[size] = count + 1;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int ordinal(int entry) {
+            return ordinals[entry];
+        }
+
+        /*
+         * @return the first entry in [from, size()) whose ordinal is >= ordinal,
+         *         or size() if none, by galloping from from
+         */
+        int seek(int from, int ordinal) {
+            return TextQuery.gallop(ordinals, from, size, ordinal);
+        }
+
+        /*
+         * @return true iff entry has the given position
+         */
+        boolean hasPosition(int entry, int position) {
+            return Arrays.binarySearch(positions, starts[entry], starts[entry + 1], position) >= 0;
+        }
+
+        int positionsStart(int entry) {
+            return starts[entry];
+        }
+
+        int positionsEnd(int entry) {
+            return starts[entry + 1];
+        }
+
+        int position(int index) {
+            return positions[index];
+        }
+    }
+}
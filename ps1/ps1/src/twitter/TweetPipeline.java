@@ -0,0 +1,214 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+/**
+ * Streaming pipeline from a source of tweets to a ranking of influencers.
+ *
+ * Tweets flow through stages connected by bounded queues:
+ * <pre>
+ *   source -> mention extraction (n threads) -> follows graph -> ranking
+ * </pre>
+ * The source stage pulls tweets from an iterator, such as a
+ * TweetStreamReader parsing a response as it arrives, optionally dropping
+ * tweets whose id it has already seen; extraction workers find
+ * each tweet's mentions; and a single graph stage folds them into an
+ * IncrementalFollowsGraph, handing the current top influencers to a listener
+ * every so many tweets and once at the end. A full queue blocks the stage
+ * feeding it, so a slow stage throttles the ones upstream of it, and the
+ * tweets in flight never exceed the queues' capacity.
+ *
+ * A pipeline may be run any number of times, one run at a time.
+ */
+public class TweetPipeline {
+
+    /**
+     * Receives rankings from a running pipeline.
+     */
+    public interface RankingListener {
+        /**
+         * Called on the graph stage's thread, which waits for it to return.
+         *
+         * @param influencers the current top influencers, as in
+         *                    IncrementalFollowsGraph.influencers(k)
+         * @param tweets number of tweets folded into the graph so far
+         */
+        void ranked(List<String> influencers, long tweets);
+    }
+
+    /*
+     * End-of-stream markers, compared by identity.
+     */
+    private static final Tweet END_OF_TWEETS = new Tweet(-1, "end", "", Instant.EPOCH);
+    private static final Evidence END_OF_EVIDENCE = new Evidence("end", Collections.<String>emptyList());
+
+    private final int bufferSize;
+    private final int extractors;
+    private final int topK;
+    private final long rankEvery;
+    private final RankingListener listener;
+    private final Predicate<Tweet> admit;
+    // Rep invariant:
+    //   bufferSize, extractors, topK, rankEvery > 0
+
+    /**
+     * Make a pipeline.
+     *
+     * @param bufferSize capacity of each queue between stages, > 0
+     * @param extractors number of mention-extraction threads, > 0
+     * @param topK number of influencers in each ranking, > 0
+     * @param rankEvery number of tweets between rankings, > 0
+     * @param listener receives the rankings
+     * @throws IllegalArgumentException if a count is not positive
+     */
+    public TweetPipeline(int bufferSize, int extractors, int topK, long rankEvery, RankingListener listener) {
+        this(bufferSize, extractors, topK, rankEvery, listener, tweet -> true);
+    }
+
+    /**
+     * Make a pipeline that drops repeated tweets at its source, such as the
+     * overlap between successive polls of a sample server.
+     *
+     * @param bufferSize capacity of each queue between stages, > 0
+     * @param extractors number of mention-extraction threads, > 0
+     * @param topK number of influencers in each ranking, > 0
+     * @param rankEvery number of tweets between rankings, > 0
+     * @param listener receives the rankings
+     * @param duplicates filter that decides which tweets are new; used only
+     *                   by the source stage, and kept across runs
+     * @throws IllegalArgumentException if a count is not positive
+     */
+    public TweetPipeline(int bufferSize, int extractors, int topK, long rankEvery, RankingListener listener,
+            ExpiringIdFilter duplicates) {
+        this(bufferSize, extractors, topK, rankEvery, listener, duplicates::accept);
+    }
+
+    private TweetPipeline(int bufferSize, int extractors, int topK, long rankEvery, RankingListener listener,
+            Predicate<Tweet> admit) {
+        if (bufferSize <= 0 || extractors <= 0 || topK <= 0 || rankEvery <= 0) {
+            throw new IllegalArgumentException("counts must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.extractors = extractors;
+        this.topK = topK;
+        this.rankEvery = rankEvery;
+        this.listener = listener;
+        this.admit = admit;
+    }
+
+    /**
+     * Run tweets through the pipeline until the source is exhausted.
+     *
+     * @param source tweets to process; consumed on a pipeline thread
+     * @return the follows graph of all the tweets
+     * @throws InterruptedException if interrupted while waiting, in which case
+     *                              every stage is stopped
+     * @throws RuntimeException if the source or a listener throws one; every
+     *                          stage is stopped first
+     */
+    public IncrementalFollowsGraph run(Iterator<Tweet> source) throws InterruptedException {
+        final BlockingQueue<Tweet> tweets = new ArrayBlockingQueue<Tweet>(bufferSize);
+        final BlockingQueue<Evidence> evidence = new ArrayBlockingQueue<Evidence>(bufferSize);
+        final ExecutorService executor = Executors.newFixedThreadPool(extractors + 2);
+        final ExecutorCompletionService<IncrementalFollowsGraph> stages =
+                new ExecutorCompletionService<IncrementalFollowsGraph>(executor);
+        try {
+            final List<Future<IncrementalFollowsGraph>> futures = new ArrayList<Future<IncrementalFollowsGraph>>();
+            futures.add(stages.submit(() -> {
+                while (source.hasNext()) {
+                    final Tweet tweet = source.next();
+                    if (admit.test(tweet)) {
+                        tweets.put(tweet);
+                    }
+                }
+                for (int i = 0; i < extractors; i++) {
+                    tweets.put(END_OF_TWEETS);
+                }
+                return null;
+            }));
+            for (int i = 0; i < extractors; i++) {
+                futures.add(stages.submit(() -> {
+                    final MentionScanner scanner = new MentionScanner();
+                    for (Tweet tweet = tweets.take(); tweet != END_OF_TWEETS; tweet = tweets.take()) {
+                        final List<String> mentioned = new ArrayList<String>();
+                        scanner.collect(tweet.getText(), mentioned);
+                        evidence.put(new Evidence(tweet.getAuthor(), mentioned));
+                    }
+                    evidence.put(END_OF_EVIDENCE);
+                    return null;
+                }));
+            }
+            final Future<IncrementalFollowsGraph> graphStage = stages.submit(() -> buildGraph(evidence));
+            futures.add(graphStage);
+
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    stages.take().get();
+                } catch (ExecutionException ee) {
+                    final Throwable cause = ee.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new RuntimeException(cause);
+                }
+            }
+            return graphStage.get();
+        } catch (ExecutionException ee) {
+            throw new AssertionError("stage already completed normally", ee);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /*
+     * The graph stage: fold evidence into a graph until every extractor has
+     * finished, ranking periodically.
+     */
+    private IncrementalFollowsGraph buildGraph(BlockingQueue<Evidence> evidence) throws InterruptedException {
+        final IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+        long count = 0;
+        for (int finished = 0; finished < extractors; ) {
+            final Evidence next = evidence.take();
+            if (next == END_OF_EVIDENCE) {
+                finished++;
+                continue;
+            }
+            graph.accept(next.author, next.mentioned);
+            if (++count % rankEvery == 0) {
+                listener.ranked(graph.influencers(topK), count);
+            }
+        }
+        listener.ranked(graph.influencers(topK), count);
+        return graph;
+    }
+
+    /*
+     * The mentions extracted from one tweet.
+     */
+    private static class Evidence {
+        private final String author;
+        private final List<String> mentioned;
+
+        Evidence(String author, List<String> mentioned) {
+            this.author = author;
+            this.mentioned = mentioned;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Mutable store of tweets kept sorted by timestamp.
+ *
+ * Tweets are numbered by ordinal, in the order they were appended. Alongside
+ * the tweets the store keeps their timestamps as a sorted array of epoch
+ * milliseconds, with a parallel array giving the ordinal of each entry, so
+ * that timespan queries are two binary searches and its overall timespan is
+ * read off the ends of the array. Appending a batch sorts only the batch and
+ * merges it in; the tweets already stored are never re-sorted.
+ */
+public class TweetStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NANOS_PER_MILLI = 1000000;
+
+    private final List<Tweet> tweets = new ArrayList<Tweet>();
+    private long[] times = new long[INITIAL_CAPACITY];
+    private int[] order = new int[INITIAL_CAPACITY];
+    // Abstraction function:
+    //   represents the sequence of tweets, where tweets.get(i) has ordinal i
+    // Rep invariant:
+    //   times.length == order.length >= tweets.size()
+    //   order[0..tweets.size()) is a permutation of 0..tweets.size()
+    //   times[i] == tweets.get(order[i]).getTimestamp().toEpochMilli()
+    //   (timestamp of tweets.get(order[i]), order[i]) is strictly increasing
+    //   in i, lexicographically
+    // Safety from rep exposure:
+    //   all fields are private; arrays are copied before being returned
+
+    /**
+     * Make an empty store.
+     */
+    public TweetStore() {
+    }
+
+    /**
+     * Make a store holding some tweets.
+     *
+     * @param tweets tweets to store, in ordinal order; not modified
+     */
+    public TweetStore(List<Tweet> tweets) {
+        appendAll(tweets);
+    }
+
+    /**
+     * Append a tweet.
+     *
+     * @param tweet tweet to append
+     * @return the ordinal of the tweet
+     */
+    public int append(Tweet tweet) {
+        appendAll(Collections.singletonList(tweet));
+        return tweets.size() - 1;
+    }
+
+    /**
+     * Append a batch of tweets, giving them consecutive ordinals in list order.
+     * Takes O(b log b + n) time for a batch of b tweets into a store of n.
+     *
+     * @param batch tweets to append; not modified
+     */
+    public void appendAll(List<Tweet> batch) {
+        final int oldSize = tweets.size();
+        final int newSize = oldSize + batch.size();
+        if (newSize > times.length) {
+            final int capacity = Math.max(newSize, times.length * 2);
+            times = Arrays.copyOf(times, capacity);
+            order = Arrays.copyOf(order, capacity);
+        }
+        tweets.addAll(batch);
+
+        // sort the batch on its own, as (millis, ordinal) pairs packed in parallel arrays
+        final long[] batchTimes = new long[batch.size()];
+        final int[] batchOrder = sortedByTime(batch, oldSize, batchTimes);
+
+        // merge from the back so the stored entries are moved at most once
+        int i = oldSize - 1;
+        int j = batchOrder.length - 1;
+        for (int k = newSize - 1; j >= 0; k--) {
+            if (i >= 0 && (times[i] > batchTimes[j] || (times[i] == batchTimes[j]
+                    && tweets.get(order[i]).getTimestamp().isAfter(tweets.get(batchOrder[j]).getTimestamp())))) {
+                times[k] = times[i];
+                order[k] = order[i];
+                i--;
+            } else {
+                times[k] = batchTimes[j];
+                order[k] = batchOrder[j];
+                j--;
+            }
+        }
+    }
+
+    /*
+     * Sort a batch by timestamp, breaking ties by ordinal, with a stable
+     * bottom-up merge sort of positions keyed by two primitive arrays: epoch
+     * millis, then nanoseconds within the millisecond.
+     *
+     * @param firstOrdinal ordinal of batch.get(0)
+     * @param sortedTimes filled with the sorted epoch millis
+     * @return the ordinals in sorted order
+     */
+    private static int[] sortedByTime(List<Tweet> batch, int firstOrdinal, long[] sortedTimes) {
+        final int n = batch.size();
+        final long[] millis = new long[n];
+        final int[] subMillis = new int[n];
+        int[] positions = new int[n];
+        for (int i = 0; i < n; i++) {
+            final Instant timestamp = batch.get(i).getTimestamp();
+            millis[i] = timestamp.toEpochMilli();
+            subMillis[i] = timestamp.getNano() % NANOS_PER_MILLI;
+            positions[i] = i;
+        }
+        int[] merged = new int[n];
+        for (int width = 1; width < n; width *= 2) {
+            for (int low = 0; low < n; low += 2 * width) {
+                final int middle = Math.min(low + width, n);
+                final int high = Math.min(low + 2 * width, n);
+                int a = low;
+                int b = middle;
+                for (int k = low; k < high; k++) {
+                    // take from the right run only if strictly earlier, for stability
+                    if (b < high && (a >= middle || millis[positions[b]] < millis[positions[a]]
+                            || (millis[positions[b]] == millis[positions[a]]
+                                    && subMillis[positions[b]] < subMillis[positions[a]]))) {
+                        merged[k] = positions[b++];
+                    } else {
+                        merged[k] = positions[a++];
+                    }
+                }
+            }
+            final int[] swap = positions;
+            positions = merged;
+            merged = swap;
+        }
+        final int[] ordinals = new int[n];
+        for (int i = 0; i < n; i++) {
+            sortedTimes[i] = millis[positions[i]];
+            ordinals[i] = firstOrdinal + positions[i];
+        }
+        return ordinals;
+    }
+
+    /**
+     * @return number of tweets in the store
+     */
+    public int size() {
+        return tweets.size();
+    }
+
+    /**
+     * @param ordinal ordinal of a tweet, requires 0 <= ordinal < size()
+     * @return the tweet with that ordinal
+     */
+    public Tweet get(int ordinal) {
+        return tweets.get(ordinal);
+    }
+
+    /**
+     * Get the time period spanned by the stored tweets, in O(1) time.
+     *
+     * @return a minimum-length time interval that contains the timestamp of
+     *         every stored tweet. Requires size() > 0.
+     */
+    public Timespan getTimespan() {
+        if (tweets.isEmpty()) {
+            throw new IllegalStateException("requires a nonempty store");
+        }
+        return new Timespan(tweets.get(order[0]).getTimestamp(),
+                tweets.get(order[tweets.size() - 1]).getTimestamp());
+    }
+
+    /**
+     * Find the tweets sent during a timespan, endpoints included: two binary
+     * searches and a copy of the slice between them, in O(log n + k) time for
+     * k matching tweets.
+     *
+     * @param timespan timespan
+     * @return the ordinals of all and only the tweets sent during timespan,
+     *         in timestamp order, tweets with equal timestamps in increasing
+     *         order of ordinal; sort the result for ordinal order
+     */
+    public int[] inTimespan(Timespan timespan) {
+        final Instant start = timespan.getStart();
+        final Instant end = timespan.getEnd();
+        final long startMillis = start.toEpochMilli();
+        final long endMillis = end.toEpochMilli();
+        final int from = firstAbove(startMillis - 1);
+        final int to = firstAbove(endMillis);
+
+        final int[] ordinals = new int[Math.max(0, to - from)];
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            // entries sharing a millisecond with an endpoint may still fall outside it
+            if (times[i] == startMillis || times[i] == endMillis) {
+                final Instant timestamp = tweets.get(order[i]).getTimestamp();
+                if (timestamp.isBefore(start) || timestamp.isAfter(end)) {
+                    continue;
+                }
+            }
+            ordinals[count++] = order[i];
+        }
+        return count == ordinals.length ? ordinals : Arrays.copyOf(ordinals, count);
+    }
+
+    /**
+     * Bound the number of tweets sent during a timespan, in O(log n) time,
+     * without finding them.
+     *
+     * @param timespan timespan
+     * @return an upper bound on the length of inTimespan(timespan), exact
+     *         unless some tweets share a millisecond with an endpoint
+     */
+    public int estimateInTimespan(Timespan timespan) {
+        return Math.max(0, firstAbove(timespan.getEnd().toEpochMilli())
+                - firstAbove(timespan.getStart().toEpochMilli() - 1));
+    }
+
+    /*
+     * @return the first position i with times[i] > millis, or size() if none
+     */
+    private int firstAbove(long millis) {
+        int low = 0;
+        int high = tweets.size();
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (times[middle] <= millis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param ordinals ordinals of tweets in this store
+     * @return the tweets with those ordinals, in the same order
+     */
+    public List<Tweet> tweetsAt(int[] ordinals) {
+        final List<Tweet> result = new ArrayList<Tweet>(ordinals.length);
+        for (int ordinal : ordinals) {
+            result.add(tweets.get(ordinal));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,191 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+/**
+ * Streaming reader for the same JSON tweet format that TweetReader reads.
+ *
+ * Tweets are pulled one at a time from JsonParser events, so only the tweet
+ * currently being read is ever held in memory, however long the input is.
+ * Only the fields "id", "user.screen_name", "text" and "created_at" are kept;
+ * every other value is skipped without being materialized.
+ */
+public class TweetStreamReader implements Iterator<Tweet>, Closeable {
+
+    private static final DateTimeFormatter CREATED_AT_FORMAT =
+            DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss Z yyyy", Locale.US);
+
+    private final JsonParser parser;
+    private Tweet next;
+    private boolean done;
+    // Rep invariant:
+    //   parser is positioned inside the top-level array, between two tweets
+    //   done implies next == null
+    // Safety from rep exposure:
+    //   all fields are private, and the parser is never handed out
+
+    /**
+     * Make a reader over a JSON array of tweets.
+     *
+     * @param reader source of the JSON text; closed when this reader is closed
+     * @throws JsonException if the input does not start with a JSON array
+     */
+    public TweetStreamReader(Reader reader) {
+        this.parser = Json.createParser(reader);
+        if (!parser.hasNext() || parser.next() != Event.START_ARRAY) {
+            throw new JsonException("Expected a JSON array of tweets");
+        }
+    }
+
+    /**
+     * Stream the tweets served at a URL.
+     *
+     * @param url URL of server to retrieve tweets from
+     * @return a lazily read stream of tweets; closing it closes the connection
+     * @throws IOException if the url is invalid, the server is unreachable,
+     *                     or some other network-related error occurs.
+     */
+    public static Stream<Tweet> streamFromWeb(URL url) throws IOException {
+        return stream(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Stream the tweets in a JSON array.
+     *
+     * @param reader source of the JSON text
+     * @return a lazily read, ordered stream of tweets; closing it closes reader
+     */
+    public static Stream<Tweet> stream(Reader reader) {
+        final TweetStreamReader tweets = new TweetStreamReader(reader);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(tweets,
+                        Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(tweets::close);
+    }
+
+    @Override public boolean hasNext() {
+        if (next == null && !done) {
+            next = readTweet();
+        }
+        return next != null;
+    }
+
+    @Override public Tweet next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final Tweet tweet = next;
+        next = null;
+        return tweet;
+    }
+
+    /**
+     * Close the underlying reader.
+     */
+    @Override public void close() {
+        done = true;
+        next = null;
+        parser.close();
+    }
+
+    /*
+     * Read the next tweet object of the top-level array.
+     *
+     * @return the tweet, or null if the array has ended
+     */
+    private Tweet readTweet() {
+        final Event first = parser.next();
+        if (first == Event.END_ARRAY) {
+            done = true;
+            return null;
+        }
+        if (first != Event.START_OBJECT) {
+            throw new JsonException("Unexpected value type " + first);
+        }
+
+        String id = null;
+        String screenName = null;
+        String text = null;
+        String createdAt = null;
+
+        // depth 1 is the tweet object itself; inUser is set while inside its "user" object
+        int depth = 1;
+        boolean inUser = false;
+        String key = null;
+        while (depth > 0) {
+            switch (parser.next()) {
+            case KEY_NAME:
+                key = parser.getString();
+                break;
+            case START_OBJECT:
+                if (depth == 1 && "user".equals(key)) {
+                    inUser = true;
+                }
+                depth++;
+                break;
+            case START_ARRAY:
+                depth++;
+                break;
+            case END_OBJECT:
+            case END_ARRAY:
+                depth--;
+                if (depth == 1) {
+                    inUser = false;
+                }
+                break;
+            case VALUE_STRING:
+            case VALUE_NUMBER:
+                if (depth == 1) {
+                    switch (key) {
+                    case "id":
+                        id = parser.getString();
+                        break;
+                    case "text":
+                        text = parser.getString();
+                        break;
+                    case "created_at":
+                        createdAt = parser.getString();
+                        break;
+                    case "user.screen_name":
+                        screenName = parser.getString();
+                        break;
+                    default:
+                        break;
+                    }
+                } else if (depth == 2 && inUser && "screen_name".equals(key)) {
+                    screenName = parser.getString();
+                }
+                break;
+            default:
+                break;
+            }
+        }
+
+        if (id == null || screenName == null || text == null || createdAt == null) {
+            throw new JsonException("Tweet is missing one of id, user.screen_name, text, created_at");
+        }
+        final ZonedDateTime timestamp = ZonedDateTime.parse(createdAt, CREATED_AT_FORMAT);
+        return new Tweet(Long.parseLong(id), screenName, text, timestamp.toInstant());
+    }
+}
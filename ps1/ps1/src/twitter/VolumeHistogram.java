@@ -0,0 +1,312 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mutable histogram of tweet and mention volume per minute, answering range
+ * counts in O(log d) time for a histogram covering d days.
+ *
+ * Minutes are stored sparsely, a page per UTC day that is allocated only
+ * when the day gets its first tweet. Each page keeps a Fenwick tree (binary
+ * indexed tree) over its minutes for each series, and the days covered keep
+ * a Fenwick tree over the page totals. Ingesting a tweet updates O(log d)
+ * tree nodes, and the count between any two minutes is the difference of
+ * two prefix sums, each a day prefix plus a prefix within one page. Hours and
+ * days are whole runs of minutes since the epoch, so rollups by hour or day
+ * are one range count per hour or day. No tweet is kept.
+ *
+ * Memory grows with the days that have tweets, plus a few words per day
+ * between the earliest and latest tweet. The days covered grow, by
+ * doubling, to include every tweet accepted, in either direction; each
+ * growth rebuilds the day trees in O(d) time. Mentions follow
+ * Extract.getMentionedUsers: each tweet counts once for each distinct user
+ * it mentions, ignoring case. A histogram is not thread-safe.
+ */
+public class VolumeHistogram {
+
+    /**
+     * What a histogram counts.
+     */
+    public enum Series {
+        /** tweets sent */
+        TWEETS,
+        /** mentions of users in the tweets sent */
+        MENTIONS
+    }
+
+    private static final int SERIES = Series.values().length;
+    private static final int INITIAL_DAYS = 16;
+    private static final int MAX_DAYS = 1 << 20;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final long MINUTES_PER_HOUR = 60;
+
+    private long originDay = Long.MIN_VALUE;
+    private long[][] dayCounts = new long[SERIES][0];
+    private long[][] dayTrees = new long[SERIES][1];
+    private long[][][] pages = new long[0][][];
+    private final long[] totals = new long[SERIES];
+
+    private int[] mentionStarts = new int[8];
+    private int[] mentionEnds = new int[8];
+    // Abstraction function:
+    //   represents the function (series s, minute m) -> count of s in minute m,
+    //   where minute m covers [60m, 60(m + 1)) epoch seconds: for day index
+    //   i = floorDiv(m, MINUTES_PER_DAY) - originDay in [0, d), it is the count
+    //   in the Fenwick tree pages[i][s] at floorMod(m, MINUTES_PER_DAY), or 0
+    //   if pages[i] is null; it is 0 for every minute of the other days.
+    //   originDay is Long.MIN_VALUE iff no tweet has been accepted
+    // Rep invariant:
+    //   all dayCounts[s] and pages have the same length d <= MAX_DAYS, and
+    //   each dayTrees[s] has length d + 1
+    //   dayCounts[s][i] is the sum of series s over day i, 0 if pages[i] is null
+    //   dayTrees[s] is the Fenwick tree of dayCounts[s]: dayTrees[s][i] is the
+    //   sum of dayCounts[s][j] for i - lowestOneBit(i) <= j < i
+    //   each nonnull pages[i] has SERIES Fenwick trees of MINUTES_PER_DAY + 1
+    //   nodes, defined the same way over the minutes of the day
+    //   totals[s] is the sum of dayCounts[s]
+    //   mentionStarts.length == mentionEnds.length
+    // Safety from rep exposure:
+    //   all fields are private; arrays returned are new
+
+    /**
+     * Make an empty histogram.
+     */
+    public VolumeHistogram() {
+    }
+
+    /**
+     * Count a tweet.
+     *
+     * @param tweet tweet to count in the minute it was sent
+     * @throws IllegalArgumentException if the histogram would have to cover
+     *                                  more than about 2800 years to include it
+     */
+    public void accept(Tweet tweet) {
+        final long minute = minuteOf(tweet.getTimestamp());
+        final int day = dayIndexOf(Math.floorDiv(minute, MINUTES_PER_DAY));
+        final int minuteOfDay = (int) Math.floorMod(minute, (long) MINUTES_PER_DAY);
+        add(Series.TWEETS, day, minuteOfDay, 1);
+        final int mentions = distinctMentions(tweet.getText());
+        if (mentions > 0) {
+            add(Series.MENTIONS, day, minuteOfDay, mentions);
+        }
+    }
+
+    /**
+     * Count each of a list of tweets.
+     *
+     * @param tweets tweets to count, not modified by this method
+     * @throws IllegalArgumentException if the histogram would have to cover
+     *                                  more than about 2800 years to include them
+     */
+    public void acceptAll(List<Tweet> tweets) {
+        tweets.forEach(this::accept);
+    }
+
+    /*
+     * @return the number of distinct users mentioned in text
+     */
+    private int distinctMentions(String text) {
+        final int[] distinct = new int[1];
+        MentionScanner.scan(text, (t, start, end) -> {
+            for (int i = 0; i < distinct[0]; i++) {
+                if (mentionEnds[i] - mentionStarts[i] == end - start
+                        && text.regionMatches(true, mentionStarts[i], text, start, end - start)) {
+                    return;
+                }
+            }
+            if (distinct[0] == mentionStarts.length) {
+                mentionStarts = Arrays.copyOf(mentionStarts, distinct[0] * 2);
+                mentionEnds = Arrays.copyOf(mentionEnds, distinct[0] * 2);
+            }
+            mentionStarts[distinct[0]] = start;
+            mentionEnds[distinct[0]] = end;
+            distinct[0]++;
+        });
+        return distinct[0];
+    }
+
+    private static long minuteOf(Instant instant) {
+        return Math.floorDiv(instant.getEpochSecond(), 60);
+    }
+
+    /*
+     * @return the index in pages of a day, growing the histogram to cover it
+     *         if necessary
+     */
+    private int dayIndexOf(long day) {
+        final int n = pages.length;
+        if (originDay == Long.MIN_VALUE) {
+            originDay = day;
+            resize(0, INITIAL_DAYS);
+        } else if (day < originDay) {
+            final long needed = originDay - day + n;
+            resize(grownLength(needed) - n, grownLength(needed));
+        } else if (day - originDay >= n) {
+            resize(0, grownLength(day - originDay + 1));
+        }
+        return (int) (day - originDay);
+    }
+
+    /*
+     * @return a length of at least needed days, at least double the current
+     *         length
+     */
+    private int grownLength(long needed) {
+        if (needed > MAX_DAYS) {
+            throw new IllegalArgumentException("histogram can't cover " + needed + " days");
+        }
+        return (int) Math.min(MAX_DAYS, Math.max(needed, 2L * pages.length));
+    }
+
+    /*
+     * Grow the days covered to length, moving the existing days up by shift,
+     * and rebuild the day trees. Pages are moved, not copied.
+     */
+    private void resize(int shift, int length) {
+        originDay -= shift;
+        final long[][][] grownPages = new long[length][][];
+        System.arraycopy(pages, 0, grownPages, shift, pages.length);
+        pages = grownPages;
+        for (int s = 0; s < SERIES; s++) {
+            final long[] grown = new long[length];
+            System.arraycopy(dayCounts[s], 0, grown, shift, dayCounts[s].length);
+            dayCounts[s] = grown;
+            final long[] tree = new long[length + 1];
+            for (int i = 1; i <= length; i++) {
+                tree[i] += grown[i - 1];
+                final int parent = i + Integer.lowestOneBit(i);
+                if (parent <= length) {
+                    tree[parent] += tree[i];
+                }
+            }
+            dayTrees[s] = tree;
+        }
+    }
+
+    private void add(Series series, int day, int minuteOfDay, long amount) {
+        final int s = series.ordinal();
+        if (pages[day] == null) {
+            pages[day] = new long[SERIES][MINUTES_PER_DAY + 1];
+        }
+        addToTree(pages[day][s], minuteOfDay, amount);
+        dayCounts[s][day] += amount;
+        addToTree(dayTrees[s], day, amount);
+        totals[s] += amount;
+    }
+
+    private static void addToTree(long[] tree, int index, long amount) {
+        for (int i = index + 1; i < tree.length; i += Integer.lowestOneBit(i)) {
+            tree[i] += amount;
+        }
+    }
+
+    /*
+     * @return the sum of the first end counts of a Fenwick tree, requires
+     *         0 <= end < tree.length
+     */
+    private static long prefixOfTree(long[] tree, int end) {
+        long sum = 0;
+        for (int i = end; i > 0; i -= Integer.lowestOneBit(i)) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /*
+     * @return the sum of series s over all minutes before minute, in
+     *         O(log d) time
+     */
+    private long prefix(int s, long minute) {
+        final long day = Math.floorDiv(minute, MINUTES_PER_DAY) - originDay;
+        if (day < 0) {
+            return 0;
+        } else if (day >= pages.length) {
+            return totals[s];
+        }
+        final long[][] page = pages[(int) day];
+        final long withinDay = page == null ? 0
+                : prefixOfTree(page[s], (int) Math.floorMod(minute, (long) MINUTES_PER_DAY));
+        return prefixOfTree(dayTrees[s], (int) day) + withinDay;
+    }
+
+    /*
+     * @return the sum of series s over minutes [from, to), in O(log d) time
+     */
+    private long sum(int s, long from, long to) {
+        if (originDay == Long.MIN_VALUE || from >= to) {
+            return 0;
+        }
+        return prefix(s, to) - prefix(s, from);
+    }
+
+    /**
+     * Count tweets or mentions over a timespan, in O(log d) time.
+     *
+     * @param series what to count
+     * @param timespan timespan, widened to whole minutes: it covers every
+     *                 minute that contains an instant of it
+     * @return the number of tweets accepted, or mentions in them, that were
+     *         sent during the minutes covered by timespan
+     */
+    public long count(Series series, Timespan timespan) {
+        return sum(series.ordinal(), minuteOf(timespan.getStart()), minuteOf(timespan.getEnd()) + 1);
+    }
+
+    /**
+     * @param series what to count
+     * @return the number of tweets accepted, or mentions in them
+     */
+    public long total(Series series) {
+        return totals[series.ordinal()];
+    }
+
+    /**
+     * Count tweets or mentions per minute, hour or day over a timespan, in
+     * O(k log d) time for k buckets.
+     *
+     * @param series what to count
+     * @param unit MINUTES, HOURS or DAYS; hours and days are UTC
+     * @param timespan timespan, widened to whole units: it covers every unit
+     *                 that contains an instant of it
+     * @return the count of series in each unit covered by timespan, in order;
+     *         element 0 is the unit containing timespan's start
+     * @throws IllegalArgumentException if unit is not MINUTES, HOURS or DAYS,
+     *                                  or the timespan covers more than
+     *                                  Integer.MAX_VALUE units
+     */
+    public long[] rollup(Series series, ChronoUnit unit, Timespan timespan) {
+        final long minutesPerUnit;
+        switch (unit) {
+        case MINUTES:
+            minutesPerUnit = 1;
+            break;
+        case HOURS:
+            minutesPerUnit = MINUTES_PER_HOUR;
+            break;
+        case DAYS:
+            minutesPerUnit = MINUTES_PER_DAY;
+            break;
+        default:
+            throw new IllegalArgumentException("can't roll up by " + unit);
+        }
+        final long first = Math.floorDiv(minuteOf(timespan.getStart()), minutesPerUnit);
+        final long last = Math.floorDiv(minuteOf(timespan.getEnd()), minutesPerUnit);
+        if (last - first >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("too many " + unit + " in " + timespan);
+        }
+        final long[] rollup = new long[(int) (last - first + 1)];
+        final int s = series.ordinal();
+        for (int i = 0; i < rollup.length; i++) {
+            final long from = (first + i) * minutesPerUnit;
+            rollup[i] = sum(s, from, from + minutesPerUnit);
+        }
+        return rollup;
+    }
+}
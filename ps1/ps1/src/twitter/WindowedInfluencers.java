@@ -0,0 +1,361 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Mutable leaderboard of the users with the most followers over a sliding
+ * time window, updated as tweets arrive rather than rebuilt.
+ *
+ * Follows are guessed as in SocialNetwork.guessFollowsGraph, from the tweets
+ * sent within the window that ends at the latest time seen so far. Each
+ * mention of one user by another adds a reference to their follows edge, a
+ * packed pair of user ids counted in a LongIntHashMap, and schedules its
+ * removal in a min-heap keyed by the time it leaves the window. A user's
+ * follower count changes only when an edge gains its first reference or
+ * loses its last, so each tweet costs O(m log n) time for m mentions and n
+ * pending expiries, and each expiry O(log n).
+ *
+ * Users are kept in buckets by follower count, doubly linked lists that a
+ * user moves between in O(1) time when a count goes up or down. Top-K
+ * queries walk the buckets down from the highest count and never look at
+ * users ranked below the K-th.
+ *
+ * Each user is reference-counted by the pending mentions they take part in,
+ * as follower or followee, and is removed from the symbol table once the
+ * last one expires; their id is then reused. Memory therefore follows the
+ * most evidence the window has held at once, not every user ever seen.
+ * A leaderboard is not thread-safe.
+ */
+public class WindowedInfluencers {
+
+    private final long windowMillis;
+    private long now = Long.MIN_VALUE;
+
+    private final SymbolTable users = new SymbolTable();
+    private final LongIntHashMap follows = new LongIntHashMap();
+    private int[] followerCounts = new int[16];
+    private int[] references = new int[16];
+
+    private long[] expiries = new long[16];
+    private long[] expiringEdges = new long[16];
+    private int pending;
+
+    private int[] bucketHeads = newBuckets(16);
+    private int[] nextInBucket = new int[16];
+    private int[] prevInBucket = new int[16];
+    private int maxCount;
+    // Abstraction function:
+    //   represents the follows graph guessed from the mentions in tweets sent
+    //   during (now - windowMillis, now] epoch millis, where users u follows
+    //   users v iff follows.get(edge(u, v)) > 0, the number of such mentions;
+    //   now is Long.MIN_VALUE iff no time has been seen
+    // Rep invariant:
+    //   windowMillis > 0
+    //   followerCounts, references, nextInBucket and prevInBucket have length
+    //   >= users.idLimit()
+    //   followerCounts[v] == number of u with follows.get(edge(u, v)) > 0
+    //   references[v] == number of i with v in expiringEdges[i], and users
+    //   holds exactly the users with references[v] > 0
+    //   expiries[0..pending) is a min-heap; expiringEdges[i] is the edge of a
+    //   mention that leaves the window at time expiries[i] > now, and for
+    //   each edge e, follows.get(e) == number of i with expiringEdges[i] == e
+    //   for each count c >= 1, the list starting at bucketHeads[c] and linked
+    //   by nextInBucket (prevInBucket backwards, -1 at the ends) holds exactly
+    //   the users with followerCounts[v] == c
+    //   maxCount is the largest follower count, or 0 if there are no follows
+    // Safety from rep exposure:
+    //   all fields are private; only Strings are returned
+
+    /**
+     * Make an empty leaderboard.
+     *
+     * @param window length of the sliding window, at least 1 millisecond
+     * @throws IllegalArgumentException if window is shorter than 1 millisecond
+     */
+    public WindowedInfluencers(Duration window) {
+        if (window.toMillis() < 1) {
+            throw new IllegalArgumentException("window too short: " + window);
+        }
+        this.windowMillis = window.toMillis();
+    }
+
+    /**
+     * Add the follows evidence in a tweet, if it was sent within the window
+     * that ends at the latest time seen so far; tweets sent later move the
+     * window forward, dropping the evidence that falls out of it.
+     *
+     * @param tweet a tweet
+     */
+    public void accept(Tweet tweet) {
+        final long sent = tweet.getTimestamp().toEpochMilli();
+        advance(sent);
+        if (sent <= now - windowMillis) {
+            return;
+        }
+        final long expiry = sent + windowMillis;
+        final int author = users.intern(tweet.getAuthor());
+        MentionScanner.scan(tweet.getText(), (text, start, end) -> {
+            final int mentioned = users.intern(text, start, end);
+            // one can not be a follower to himself/herself
+            if (mentioned != author) {
+                follow(author, mentioned, expiry);
+            }
+        });
+        ensureUsers();
+        if (references[author] == 0) {
+            users.remove(author);
+        }
+    }
+
+    /**
+     * Move the window forward so that it ends at a given time, dropping the
+     * evidence that falls out of it.
+     *
+     * @param time a time; times earlier than the latest seen are ignored
+     */
+    public void advanceTo(Instant time) {
+        advance(time.toEpochMilli());
+    }
+
+    /**
+     * @param username a Twitter username, compared case-insensitively
+     * @return the number of users who mentioned username in the window
+     */
+    public int followerCount(String username) {
+        final int id = users.find(username);
+        return id < 0 ? 0 : followerCounts[id];
+    }
+
+    /**
+     * @return the number of users who mentioned, or were mentioned by,
+     *         another user in the window
+     */
+    public int trackedUsers() {
+        return users.size();
+    }
+
+    /**
+     * Find the users with the most followers in the window, in
+     * O(c + k log k) time when the highest follower count is c.
+     *
+     * @param k maximum number of usernames to return, requires k >= 0
+     * @return at most k usernames with at least one follower in the window,
+     *         lower-cased, in descending order of follower count; users with
+     *         equal counts are in alphabetical order. These are the first
+     *         usernames of SocialNetwork.influencers over the follows graph
+     *         guessed from the tweets in the window.
+     */
+    public List<String> influencers(int k) {
+        final List<String> top = new ArrayList<String>(Math.min(k, users.size()));
+        final List<String> tied = new ArrayList<String>();
+        for (int count = maxCount; count > 0 && top.size() < k; count--) {
+            tied.clear();
+            for (int user = bucketHeads[count]; user >= 0; user = nextInBucket[user]) {
+                tied.add(users.name(user));
+            }
+            final int wanted = k - top.size();
+            if (tied.size() <= wanted) {
+                Collections.sort(tied);
+                top.addAll(tied);
+            } else {
+                top.addAll(firstAlphabetically(tied, wanted));
+            }
+        }
+        return top;
+    }
+
+    /*
+     * @return the n alphabetically first of names, in order, using a bounded
+     *         max-heap; requires n < names.size()
+     */
+    private static List<String> firstAlphabetically(List<String> names, int n) {
+        final PriorityQueue<String> kept = new PriorityQueue<String>(n + 1, Collections.reverseOrder());
+        for (String name : names) {
+            kept.add(name);
+            if (kept.size() > n) {
+                kept.poll();
+            }
+        }
+        final String[] first = new String[kept.size()];
+        for (int i = first.length - 1; i >= 0; i--) {
+            first[i] = kept.poll();
+        }
+        return Arrays.asList(first);
+    }
+
+    /*
+     * Make time the end of the window, if it is later than now, and expire
+     * the mentions that leave the window.
+     */
+    private void advance(long time) {
+        if (time <= now) {
+            return;
+        }
+        now = time;
+        while (pending > 0 && expiries[0] <= now) {
+            final long edge = expiringEdges[0];
+            pending--;
+            if (pending > 0) {
+                siftDown(expiries[pending], expiringEdges[pending]);
+            }
+            if (follows.add(edge, -1) == 0) {
+                decrement(followeeOf(edge));
+            }
+            release(followerOf(edge));
+            release(followeeOf(edge));
+        }
+    }
+
+    /*
+     * Drop one reference to a user, removing them once they have none.
+     */
+    private void release(int user) {
+        if (--references[user] == 0) {
+            users.remove(user);
+        }
+    }
+
+    /*
+     * Record a mention of followee by follower that leaves the window at expiry.
+     */
+    private void follow(int follower, int followee, long expiry) {
+        ensureUsers();
+        final long edge = edge(follower, followee);
+        push(expiry, edge);
+        references[follower]++;
+        references[followee]++;
+        if (follows.add(edge, 1) == 1) {
+            increment(followee);
+        }
+    }
+
+    private static long edge(int follower, int followee) {
+        return ((long) follower << 32) | followee;
+    }
+
+    private static int followerOf(long edge) {
+        return (int) (edge >>> 32);
+    }
+
+    private static int followeeOf(long edge) {
+        return (int) edge;
+    }
+
+    private void ensureUsers() {
+        final int size = users.idLimit();
+        if (size > followerCounts.length) {
+            followerCounts = SocialNetwork.ensureCapacity(followerCounts, size);
+            references = Arrays.copyOf(references, followerCounts.length);
+            nextInBucket = Arrays.copyOf(nextInBucket, followerCounts.length);
+            prevInBucket = Arrays.copyOf(prevInBucket, followerCounts.length);
+        }
+    }
+
+    private void increment(int user) {
+        final int count = followerCounts[user];
+        if (count > 0) {
+            unlink(user, count);
+        }
+        followerCounts[user] = count + 1;
+        link(user, count + 1);
+        maxCount = Math.max(maxCount, count + 1);
+    }
+
+    private void decrement(int user) {
+        final int count = followerCounts[user];
+        unlink(user, count);
+        followerCounts[user] = count - 1;
+        if (count > 1) {
+            link(user, count - 1);
+        }
+        if (count == maxCount && bucketHeads[count] < 0) {
+            maxCount--;
+        }
+    }
+
+    private void link(int user, int count) {
+        if (count >= bucketHeads.length) {
+            final int[] grown = newBuckets(Math.max(count + 1, 2 * bucketHeads.length));
+            System.arraycopy(bucketHeads, 0, grown, 0, bucketHeads.length);
+            bucketHeads = grown;
+        }
+        final int head = bucketHeads[count];
+        prevInBucket[user] = -1;
+        nextInBucket[user] = head;
+        if (head >= 0) {
+            prevInBucket[head] = user;
+        }
+        bucketHeads[count] = user;
+    }
+
+    private void unlink(int user, int count) {
+        final int prev = prevInBucket[user];
+        final int next = nextInBucket[user];
+        if (prev >= 0) {
+            nextInBucket[prev] = next;
+        } else {
+            bucketHeads[count] = next;
+        }
+        if (next >= 0) {
+            prevInBucket[next] = prev;
+        }
+    }
+
+    private static int[] newBuckets(int length) {
+        final int[] buckets = new int[length];
+        Arrays.fill(buckets, -1);
+        return buckets;
+    }
+
+    private void push(long expiry, long edge) {
+        if (pending == expiries.length) {
+            expiries = Arrays.copyOf(expiries, 2 * pending);
+            expiringEdges = Arrays.copyOf(expiringEdges, 2 * pending);
+        }
+        int child = pending++;
+        while (child > 0) {
+            final int parent = (child - 1) >>> 1;
+            if (expiries[parent] <= expiry) {
+                break;
+            }
+            expiries[child] = expiries[parent];
+            expiringEdges[child] = expiringEdges[parent];
+            child = parent;
+        }
+        expiries[child] = expiry;
+        expiringEdges[child] = edge;
+    }
+
+    /*
+     * Place (expiry, edge) at the root of the heap and sift it down.
+     */
+    private void siftDown(long expiry, long edge) {
+        int parent = 0;
+        while (true) {
+            int child = 2 * parent + 1;
+            if (child >= pending) {
+                break;
+            }
+            if (child + 1 < pending && expiries[child + 1] < expiries[child]) {
+                child++;
+            }
+            if (expiries[child] >= expiry) {
+                break;
+            }
+            expiries[parent] = expiries[child];
+            expiringEdges[parent] = expiringEdges[child];
+            parent = child;
+        }
+        expiries[parent] = expiry;
+        expiringEdges[parent] = edge;
+    }
+}
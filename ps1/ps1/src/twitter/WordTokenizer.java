@@ -0,0 +1,157 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+/**
+ * Reusable cursor over the words of a text, in the sense of
+ * Filter.containing: the text is split on spaces, and each piece contributes
+ * its first run of letters a-z or A-Z, if any.
+ *
+ * The tokenizer reports each word as a range of the text, together with its
+ * position among the words and a hash of it lower-cased, without creating
+ * any substrings; the hash is the one SymbolTable uses, so a word can be
+ * interned without hashing it twice. The text may be any CharSequence, such
+ * as a String, a CharBuffer, or a ByteText view of UTF-8 bytes, whose spaces
+ * are found 8 bytes at a time.
+ *
+ * A tokenizer is not thread-safe, but it can be reset to a new text any
+ * number of times.
+ */
+public class WordTokenizer {
+
+    private CharSequence text = "";
+    private int next;
+    private int start;
+    private int end;
+    private int hash;
+    private int position = -1;
+    // Abstraction function:
+    //   represents a cursor over the words of text; if position >= 0 it is on
+    //   the word text[start, end), the word numbered position, and otherwise
+    //   it is before the first word; next is where scanning resumes
+    // Rep invariant:
+    //   0 <= start <= end <= next <= text.length() + 1
+    //   if position >= 0, hash == SymbolTable.foldedHash(text, start, end)
+    // Safety from rep exposure:
+    //   all fields are private; text is only read
+
+    /**
+     * Start over on a text.
+     *
+     * @param text text to tokenize; must not change while it is tokenized
+     * @return this tokenizer, before the first word of text
+     */
+    public WordTokenizer reset(CharSequence text) {
+        this.text = text;
+        this.next = 0;
+        this.start = 0;
+        this.end = 0;
+        this.hash = 0;
+        this.position = -1;
+        return this;
+    }
+
+    /**
+     * Move to the next word.
+     *
+     * @return true if there was another word, false if the text is exhausted
+     */
+    public boolean next() {
+        final int length = text.length();
+        while (next <= length) {
+            final int pieceEnd = indexOfSpace(next, length);
+            int wordStart = next;
+            while (wordStart < pieceEnd && !isLetter(text.charAt(wordStart))) {
+                wordStart++;
+            }
+            next = pieceEnd + 1;
+            if (wordStart < pieceEnd) {
+                int wordHash = 0;
+                int wordEnd = wordStart;
+                char c;
+                while (wordEnd < pieceEnd && isLetter(c = text.charAt(wordEnd))) {
+                    wordHash = 31 * wordHash + toLower(c);
+                    wordEnd++;
+                }
+                start = wordStart;
+                end = wordEnd;
+                hash = SymbolTable.spread(wordHash);
+                position++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * @return the index of the first ' ' in text[from, length), or length if none
+     */
+    private int indexOfSpace(int from, int length) {
+        if (text instanceof ByteText) {
+            return ((ByteText) text).indexOf((byte) ' ', from, length);
+        }
+        int i = from;
+        while (i < length && text.charAt(i) != ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return index of the first character of the current word
+     */
+    public int start() {
+        return start;
+    }
+
+    /**
+     * @return index one past the last character of the current word
+     */
+    public int end() {
+        return end;
+    }
+
+    /**
+     * @return position of the current word among the words of the text,
+     *         counting from 0
+     */
+    public int position() {
+        return position;
+    }
+
+    /**
+     * @return hash of the current word lower-cased, equal to the hash
+     *         SymbolTable computes for it
+     */
+    public int hash() {
+        return hash;
+    }
+
+    /**
+     * @param lowerWord a lower-case word
+     * @return true iff the current word lower-cased equals lowerWord
+     */
+    public boolean matches(String lowerWord) {
+        if (lowerWord.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < lowerWord.length(); i++) {
+            if (lowerWord.charAt(i) != toLower(text.charAt(start + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    /*
+     * @return c lower-cased, requires isLetter(c)
+     */
+    private static char toLower(char c) {
+        return c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+}
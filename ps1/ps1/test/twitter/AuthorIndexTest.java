@@ -0,0 +1,102 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class AuthorIndexTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for writtenBy(username)
+     *  username: unknown, author of 1 tweet, author of > 1 tweets
+     *  username case: same as the tweets, different
+     *  author's tweets appended: in time order, out of time order,
+     *  with equal timestamps
+     *  tweets appended to the store: before the index was made, after
+     *
+     * Filter.writtenBy(index, username) is checked against
+     * Filter.writtenBy(list, username) on random tweets.
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
+    private static final Instant d3 = Instant.parse("2016-02-17T12:00:00Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "alyssa", "one", d2);
+    private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "two", d2);
+    private static final Tweet tweet3 = new Tweet(3, "Alyssa", "three", d1);
+    private static final Tweet tweet4 = new Tweet(4, "ALYSSA", "four", d3);
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testUnknownAuthor() {
+        AuthorIndex index = new AuthorIndex(new TweetStore(Arrays.asList(tweet1)));
+
+        assertArrayEquals(new int[0], index.writtenBy("ben"));
+        assertEquals(0, index.count("ben"));
+        assertEquals(1, index.authorCount());
+    }
+
+    @Test
+    public void testTimestampOrderIgnoringCase() {
+        AuthorIndex index = new AuthorIndex(new TweetStore(Arrays.asList(tweet1, tweet2, tweet3, tweet4)));
+
+        assertArrayEquals(new int[] { 2, 0, 3 }, index.writtenBy("alyssa"));
+        assertArrayEquals(new int[] { 1 }, index.writtenBy("BBitDiddle"));
+        assertEquals(2, index.authorCount());
+    }
+
+    @Test
+    public void testFollowsAppends() {
+        TweetStore store = new TweetStore(Arrays.asList(tweet4));
+        AuthorIndex index = new AuthorIndex(store);
+        assertEquals(1, index.count("alyssa"));
+
+        store.appendAll(Arrays.asList(tweet1, tweet3));
+        Tweet sameTime = new Tweet(5, "alyssa", "five", d2);
+        store.append(sameTime);
+
+        assertEquals(Arrays.asList(tweet3, tweet1, sameTime, tweet4), Filter.writtenBy(index, "Alyssa"));
+    }
+
+    @Test
+    public void testMatchesScan() {
+        Random random = new Random(6005);
+        String[] authors = { "alyssa", "Ben", "cy", "DAN", "eva" };
+        List<Tweet> tweets = new ArrayList<Tweet>();
+        TweetStore store = new TweetStore();
+        AuthorIndex index = new AuthorIndex(store);
+        for (int batch = 0; batch < 20; batch++) {
+            List<Tweet> appended = new ArrayList<Tweet>();
+            for (int i = 0; i < 100; i++) {
+                long id = tweets.size() + appended.size();
+                String author = authors[random.nextInt(authors.length)];
+                Instant timestamp = d1.plusSeconds(random.nextInt(1000));
+                appended.add(new Tweet(id, author, "tweet " + id, timestamp));
+            }
+            tweets.addAll(appended);
+            store.appendAll(appended);
+
+            for (String author : authors) {
+                List<Tweet> expected = new ArrayList<Tweet>(Filter.writtenBy(tweets, author));
+                expected.sort((a, b) -> a.getTimestamp().compareTo(b.getTimestamp()));
+                assertEquals(expected, Filter.writtenBy(index, author.toUpperCase()));
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ByteTextTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for indexOf(target, from, to)
+     *  target: absent, at each position within an 8-byte word, in the tail
+     *  after the last whole word, repeated
+     *  neighbouring bytes: 0x00, 0x80-0xff, target +/- 1
+     *  range: empty, shorter than 8, several words, not starting at 0
+     *  bytes: array, direct buffer, big-endian buffer
+     *
+     * Partition for range, length, charAt, toString
+     *  range: whole, inside, out of bounds
+     *  byte: ASCII, >= 0x80
+     *
+     * MentionScanner and WordTokenizer over a view of UTF-8 bytes find the
+     * same mentions and words as over the decoded text
+     */
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    private static int scalarIndexOf(byte[] bytes, int start, byte target, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[start + i] == target) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    @Test
+    public void testIndexOfSameAsScalar() {
+        Random random = new Random(6005);
+        byte[] alphabet = { '@', '?', 'A', ' ', 0, (byte) 0x80, (byte) 0xc0, (byte) 0xff, (byte) 0xc3 };
+        for (int trial = 0; trial < 3000; trial++) {
+            byte[] bytes = new byte[random.nextInt(40)];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = alphabet[random.nextInt(random.nextInt(alphabet.length) + 1)];
+            }
+            int start = random.nextInt(bytes.length + 1);
+            int end = start + random.nextInt(bytes.length - start + 1);
+            ByteText text = new ByteText(bytes).range(start, end);
+            int from = random.nextInt(end - start + 1);
+            for (byte target : new byte[] { '@', ' ', (byte) 0xc3, 0 }) {
+                assertEquals(scalarIndexOf(bytes, start, target, from, end - start),
+                        text.indexOf(target, from, end - start));
+            }
+        }
+    }
+
+    @Test
+    public void testIndexOfEveryPosition() {
+        for (int length = 0; length <= 24; length++) {
+            for (int at = 0; at < length; at++) {
+                byte[] bytes = new byte[length];
+                Arrays.fill(bytes, (byte) 0xc0);
+                bytes[at] = '@';
+                ByteText text = new ByteText(bytes);
+                assertEquals(at, text.indexOf((byte) '@', 0, length));
+                assertEquals(length, text.indexOf((byte) '@', at + 1, length));
+                assertEquals(at, text.indexOf((byte) '@', 0, at));
+            }
+        }
+    }
+
+    @Test
+    public void testBuffers() {
+        byte[] bytes = "xx caf\u00e9 @alyssa and @ben".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).order(ByteOrder.BIG_ENDIAN);
+        direct.put(bytes);
+        ByteText text = new ByteText(direct).range(3, bytes.length);
+
+        assertEquals(0, direct.remaining());
+        assertEquals(ByteOrder.BIG_ENDIAN, direct.order());
+        assertEquals(bytes.length - 3, text.length());
+        assertEquals('c', text.charAt(0));
+        assertEquals(0xc3, text.charAt(3));
+        assertEquals(6, text.indexOf((byte) '@', 0, text.length()));
+        assertEquals(18, text.indexOf((byte) '@', 7, text.length()));
+        assertEquals("caf\u00c3\u00a9", text.toString().substring(0, 5));
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testRangeOutOfBounds() {
+        new ByteText(new byte[4]).range(2, 5);
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testCharAtOutOfBounds() {
+        new ByteText(new byte[4]).range(1, 3).charAt(2);
+    }
+
+    @Test
+    public void testScannersSameAsDecoded() {
+        Random random = new Random(6005);
+        String[] pieces = { "@alyssa", "@BEN", "x@y", "\u00e9", "\u00fc@ok", "\ud83d\ude00@mit", "caf\u00e9",
+            "mit.edu", " ", "  ", "talk", "@", "-@a1" };
+        MentionScanner scanner = new MentionScanner();
+        WordTokenizer tokens = new WordTokenizer();
+        for (int trial = 0; trial < 1000; trial++) {
+            StringBuilder builder = new StringBuilder();
+            for (int j = random.nextInt(12); j > 0; j--) {
+                builder.append(pieces[random.nextInt(pieces.length)]);
+            }
+            String decoded = builder.toString();
+            ByteText bytes = new ByteText(decoded.getBytes(StandardCharsets.UTF_8));
+
+            List<String> expected = new ArrayList<String>();
+            scanner.collect(decoded, expected);
+            List<String> actual = new ArrayList<String>();
+            scanner.collect(bytes, actual);
+            assertEquals(decoded, expected, actual);
+
+            assertEquals(decoded, words(tokens, decoded), words(tokens, bytes));
+        }
+    }
+
+    private static List<String> words(WordTokenizer tokens, CharSequence text) {
+        List<String> words = new ArrayList<String>();
+        tokens.reset(text);
+        while (tokens.next()) {
+            words.add(text.subSequence(tokens.start(), tokens.end()).toString() + "#" + tokens.position());
+        }
+        return words;
+    }
+}
@@ -0,0 +1,155 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+public class CachingTweetFetcherTest {
+
+    /*
+     * Testing strategy
+     *
+     * Runs against an embedded HTTP server on the loopback interface.
+     *
+     * Partition for readTweetsFromWeb(url)
+     *  cache: empty, holding the current response, holding a stale response
+     *  validators: ETag, Last-Modified
+     *  response: gzip-compressed, error status
+     */
+
+    private static final String BODY_V1 = "[{\"id\":1,\"text\":\"first @bbitdiddle\","
+            + "\"created_at\":\"Wed Feb 17 10:00:00 +0000 2016\",\"user\":{\"screen_name\":\"alyssa\"}}]";
+    private static final String BODY_V2 = "[{\"id\":2,\"text\":\"second\","
+            + "\"created_at\":\"Wed Feb 17 11:00:00 +0000 2016\",\"user\":{\"screen_name\":\"ben\"}}]";
+    private static final String LAST_MODIFIED = "Wed, 17 Feb 2016 10:00:00 GMT";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private volatile String body = BODY_V1;
+    private volatile String etag = "\"v1\"";
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/etag", exchange -> respond(exchange, true));
+        server.createContext("/modified", exchange -> respond(exchange, false));
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private void respond(HttpExchange exchange, boolean useEtag) throws IOException {
+        String validator = useEtag ? exchange.getRequestHeaders().getFirst("If-None-Match")
+                                   : exchange.getRequestHeaders().getFirst("If-Modified-Since");
+        String current = useEtag ? etag : LAST_MODIFIED;
+        if (current.equals(validator)) {
+            notModified.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        fullResponses.incrementAndGet();
+        exchange.getResponseHeaders().set(useEtag ? "ETag" : "Last-Modified", current);
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private URL url(String path) throws IOException {
+        return new URL("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEtagRevalidation() throws IOException {
+        CachingTweetFetcher fetcher = new CachingTweetFetcher(folder.getRoot().toPath().resolve("cache"));
+
+        List<Tweet> first = fetcher.readTweetsFromWeb(url("/etag"));
+        List<Tweet> second = fetcher.readTweetsFromWeb(url("/etag"));
+
+        assertEquals(1, fullResponses.get());
+        assertEquals(1, notModified.get());
+        assertEquals(1, first.size());
+        assertEquals("alyssa", second.get(0).getAuthor());
+        assertEquals("first @bbitdiddle", second.get(0).getText());
+    }
+
+    @Test
+    public void testChangedResponseReplacesCache() throws IOException {
+        CachingTweetFetcher fetcher = new CachingTweetFetcher(folder.getRoot().toPath());
+        fetcher.readTweetsFromWeb(url("/etag"));
+
+        body = BODY_V2;
+        etag = "\"v2\"";
+        List<Tweet> changed = fetcher.readTweetsFromWeb(url("/etag"));
+        List<Tweet> cached = fetcher.readTweetsFromWeb(url("/etag"));
+
+        assertEquals(2, fullResponses.get());
+        assertEquals(1, notModified.get());
+        assertEquals(2, changed.get(0).getId());
+        assertEquals(2, cached.get(0).getId());
+    }
+
+    @Test
+    public void testLastModifiedRevalidation() throws IOException {
+        CachingTweetFetcher fetcher = new CachingTweetFetcher(folder.getRoot().toPath());
+
+        fetcher.readTweetsFromWeb(url("/modified"));
+        List<Tweet> cached = new CachingTweetFetcher(folder.getRoot().toPath()).readTweetsFromWeb(url("/modified"));
+
+        assertEquals(1, fullResponses.get());
+        assertEquals(1, notModified.get());
+        assertEquals(1, cached.get(0).getId());
+    }
+
+    @Test(expected=IOException.class)
+    public void testErrorStatus() throws IOException {
+        new CachingTweetFetcher(folder.getRoot().toPath()).readTweetsFromWeb(url("/missing"));
+    }
+}
@@ -0,0 +1,73 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.Test;
+
+public class ExpiringIdFilterTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for accept(tweet)
+     *  id: new, seen in the same bucket, seen in an earlier live bucket,
+     *  seen only in an expired bucket
+     *  tweet time: current bucket, earlier live bucket, older than the
+     *  window, far later than the window
+     *  bucket: has room, full
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    private static Tweet tweet(long id, Instant timestamp) {
+        return new Tweet(id, "alyssa", "tweet " + id, timestamp);
+    }
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testDuplicatesWithinWindow() {
+        ExpiringIdFilter filter = new ExpiringIdFilter(Duration.ofMinutes(10), 10, 100);
+
+        assertTrue(filter.accept(tweet(1, d1)));
+        assertFalse(filter.accept(tweet(1, d1)));
+        assertTrue(filter.accept(tweet(2, d1.plusSeconds(5 * 60))));
+        assertFalse(filter.accept(tweet(1, d1)));
+        assertFalse(filter.accept(tweet(2, d1.plusSeconds(5 * 60))));
+    }
+
+    @Test
+    public void testExpiry() {
+        ExpiringIdFilter filter = new ExpiringIdFilter(Duration.ofMinutes(10), 10, 100);
+        filter.accept(tweet(1, d1));
+        filter.accept(tweet(2, d1.plusSeconds(5 * 60)));
+
+        assertTrue(filter.accept(tweet(3, d1.plusSeconds(10 * 60))));
+        assertTrue(filter.accept(tweet(1, d1)));
+        assertFalse(filter.accept(tweet(2, d1.plusSeconds(5 * 60))));
+
+        assertTrue(filter.accept(tweet(4, d1.plusSeconds(3600))));
+        assertTrue(filter.accept(tweet(2, d1.plusSeconds(3600))));
+        assertFalse(filter.accept(tweet(2, d1.plusSeconds(3600))));
+    }
+
+    @Test
+    public void testFullBucketStartsOver() {
+        ExpiringIdFilter filter = new ExpiringIdFilter(Duration.ofMinutes(1), 1, 2);
+        filter.accept(tweet(1, d1));
+        filter.accept(tweet(2, d1));
+
+        assertTrue(filter.accept(tweet(3, d1)));
+        assertFalse(filter.accept(tweet(3, d1)));
+        assertTrue(filter.accept(tweet(1, d1)));
+    }
+}
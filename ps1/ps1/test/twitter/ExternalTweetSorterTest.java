@@ -0,0 +1,159 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ExternalTweetSorterTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for sort(tweets) -> timeline
+     *  tweets: none, fit in one run, many runs with a partial last run
+     *  timestamps: distinct, repeated (stability), sub-millisecond
+     *  memory budget: invalid, smaller than one tweet, large
+     *  a run can't be written: earlier runs and its own file are deleted
+     *
+     * Partition for the timeline
+     *  iterator: once, twice, after close
+     *  getTimespan: empty, nonempty
+     *  close: deletes every run file
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    private static List<Tweet> randomTweets(int count) {
+        Random random = new Random(6005);
+        List<Tweet> tweets = new ArrayList<Tweet>();
+        for (int i = 0; i < count; i++) {
+            tweets.add(new Tweet(i, "user" + random.nextInt(10), "tweet " + i + " @user" + random.nextInt(10),
+                    d1.plusSeconds(random.nextInt(500))));
+        }
+        return tweets;
+    }
+
+    private static List<Tweet> toList(Iterable<Tweet> tweets) {
+        List<Tweet> list = new ArrayList<Tweet>();
+        tweets.forEach(list::add);
+        return list;
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testInvalidBudget() {
+        new ExternalTweetSorter(0, folder.getRoot().toPath());
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        try (ExternalTweetSorter.Timeline timeline = new ExternalTweetSorter(1 << 20, folder.getRoot().toPath())
+                .sort(Collections.<Tweet>emptyIterator())) {
+            assertEquals(0, timeline.size());
+            assertFalse(timeline.iterator().hasNext());
+            try {
+                timeline.getTimespan();
+                fail("expected IllegalStateException");
+            } catch (IllegalStateException ise) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testFitsInMemory() throws IOException {
+        List<Tweet> tweets = randomTweets(100);
+        tweets.add(new Tweet(100, "late", "sub-millisecond", d1.plusNanos(1)));
+        List<Tweet> expected = new ArrayList<Tweet>(tweets);
+        Collections.sort(expected, Comparator.comparing(Tweet::getTimestamp));
+
+        try (ExternalTweetSorter.Timeline timeline = new ExternalTweetSorter(1 << 24, folder.getRoot().toPath())
+                .sort(tweets.iterator())) {
+            assertEquals(0, timeline.runs());
+            assertEquals(expected, toList(timeline));
+            assertEquals(Extract.getTimespan(tweets), Extract.getTimespan(timeline));
+        }
+    }
+
+    @Test
+    public void testManyRuns() throws IOException {
+        List<Tweet> tweets = randomTweets(1000);
+        List<Tweet> expected = new ArrayList<Tweet>(tweets);
+        Collections.sort(expected, Comparator.comparing(Tweet::getTimestamp));
+        Path directory = folder.newFolder().toPath();
+        ExternalTweetSorter sorter = new ExternalTweetSorter(
+                100 * ExternalTweetSorter.estimateBytes(tweets.get(0)), directory);
+
+        ExternalTweetSorter.Timeline timeline = sorter.sort(tweets.iterator());
+
+        assertTrue("expected many runs: " + timeline.runs(), timeline.runs() > 10);
+        assertEquals(timeline.runs(), directory.toFile().list().length);
+        assertEquals(1000, timeline.size());
+        assertEquals(Extract.getTimespan(tweets), timeline.getTimespan());
+        // stable: tweets with equal timestamps keep their ids' increasing order
+        assertEquals(expected, toList(timeline));
+        assertEquals(expected, toList(timeline));
+
+        timeline.close();
+        assertEquals(0, directory.toFile().list().length);
+        try {
+            timeline.iterator();
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException ise) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testTinyBudget() throws IOException {
+        List<Tweet> tweets = randomTweets(20);
+        List<Tweet> expected = new ArrayList<Tweet>(tweets);
+        Collections.sort(expected, Comparator.comparing(Tweet::getTimestamp));
+
+        try (ExternalTweetSorter.Timeline timeline = new ExternalTweetSorter(1, folder.getRoot().toPath())
+                .sort(tweets.iterator())) {
+            assertEquals(20, timeline.runs());
+            assertEquals(expected, toList(timeline));
+        }
+    }
+
+    @Test
+    public void testFailedSpillDeletesRuns() throws IOException {
+        List<Tweet> tweets = randomTweets(5);
+        // a tweet that fails only once it is being written to a run
+        tweets.add(3, new Tweet(99, "alyssa", "unwritable", d1) {
+            @Override public long getId() {
+                throw new UnsupportedOperationException();
+            }
+        });
+        Path directory = folder.newFolder().toPath();
+
+        try {
+            new ExternalTweetSorter(1, directory).sort(tweets.iterator());
+            fail("expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException uoe) {
+            assertEquals(0, directory.toFile().list().length);
+        }
+    }
+}
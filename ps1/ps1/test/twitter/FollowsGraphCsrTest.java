@@ -0,0 +1,163 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class FollowsGraphCsrTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for FollowsGraphCsr(followsGraph)
+     *  users: 0, 1, > 1; keys differing only in case; users with no follows
+     *
+     * Partition for pageRank(damping, tolerance, maxIterations)
+     *  graph: cycle, star, random; dangling users present or not
+     *  size below and above the parallel threshold, against a plain
+     *  sequential power iteration
+     *
+     * SocialNetwork.influenceScores is covered here too, since
+     * SocialNetworkTest must only test the staff spec.
+     */
+
+    private static final double EPSILON = 1e-9;
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmpty() {
+        FollowsGraphCsr csr = new FollowsGraphCsr(new HashMap<String, Set<String>>());
+
+        assertEquals(0, csr.userCount());
+        assertEquals(0, csr.pageRank(0.85, 1e-9, 100).length);
+    }
+
+    @Test
+    public void testCaseInsensitiveUsers() {
+        Map<String, Set<String>> followsGraph = new HashMap<>();
+        followsGraph.put("Mike", new HashSet<>(Arrays.asList("andy")));
+        followsGraph.put("mike", new HashSet<>(Arrays.asList("Andy", "jane")));
+        followsGraph.put("jane", new HashSet<String>());
+        FollowsGraphCsr csr = new FollowsGraphCsr(followsGraph);
+
+        assertEquals(3, csr.userCount());
+        assertEquals(2, csr.edgeCount());
+        for (int user = 0; user < csr.userCount(); user++) {
+            if (csr.name(user).equals("mike")) {
+                assertEquals(2, csr.followsCount(user));
+                assertEquals(0, csr.followerCount(user));
+            } else {
+                assertEquals(0, csr.followsCount(user));
+                assertEquals(1, csr.followerCount(user));
+            }
+        }
+    }
+
+    @Test
+    public void testCycleRanksEqual() {
+        Map<String, Set<String>> followsGraph = new HashMap<>();
+        followsGraph.put("a", new HashSet<>(Arrays.asList("b")));
+        followsGraph.put("b", new HashSet<>(Arrays.asList("c")));
+        followsGraph.put("c", new HashSet<>(Arrays.asList("a")));
+        Map<String, Double> scores = SocialNetwork.influenceScores(followsGraph, 0.85, 1e-12);
+
+        for (double score : scores.values()) {
+            assertEquals(1.0 / 3, score, EPSILON);
+        }
+    }
+
+    @Test
+    public void testStarHubRanksFirst() {
+        Map<String, Set<String>> followsGraph = new HashMap<>();
+        for (String fan : Arrays.asList("a", "b", "c", "d")) {
+            followsGraph.put(fan, new HashSet<>(Arrays.asList("hub")));
+        }
+        Map<String, Double> scores = SocialNetwork.influenceScores(followsGraph, 0.85, 1e-12);
+
+        assertEquals(5, scores.size());
+        assertEquals(1.0, scores.values().stream().mapToDouble(Double::doubleValue).sum(), EPSILON);
+        assertTrue("expected hub above fans", scores.get("hub") > scores.get("a"));
+        assertEquals(scores.get("a"), scores.get("d"), EPSILON);
+    }
+
+    @Test
+    public void testSmallRandomMatchesReference() {
+        assertMatchesReference(randomGraph(300, new Random(1)));
+    }
+
+    @Test
+    public void testLargeRandomMatchesReference() {
+        assertMatchesReference(randomGraph(40000, new Random(2)));
+    }
+
+    private static void assertMatchesReference(Map<String, Set<String>> followsGraph) {
+        FollowsGraphCsr csr = new FollowsGraphCsr(followsGraph);
+        double[] ranks = csr.pageRank(0.85, 1e-12, 200);
+        Map<String, Double> expected = referencePageRank(followsGraph, 0.85, 200);
+
+        assertEquals(expected.size(), ranks.length);
+        for (int user = 0; user < ranks.length; user++) {
+            assertEquals(csr.name(user), expected.get(csr.name(user)), ranks[user], 1e-9);
+        }
+    }
+
+    private static Map<String, Set<String>> randomGraph(int users, Random random) {
+        Map<String, Set<String>> followsGraph = new HashMap<>();
+        for (int u = 0; u < users; u++) {
+            Set<String> follows = new HashSet<>();
+            for (int f = random.nextInt(5); f > 0; f--) {
+                int v = random.nextInt(users);
+                if (v != u) {
+                    follows.add("u" + v);
+                }
+            }
+            followsGraph.put("u" + u, follows);
+        }
+        return followsGraph;
+    }
+
+    /*
+     * Straightforward power iteration over the map itself; requires lower-case
+     * keys that are all the users.
+     */
+    private static Map<String, Double> referencePageRank(Map<String, Set<String>> followsGraph,
+            double damping, int iterations) {
+        int n = followsGraph.size();
+        Map<String, Double> rank = new HashMap<>();
+        followsGraph.keySet().forEach(user -> rank.put(user, 1.0 / n));
+        for (int i = 0; i < iterations; i++) {
+            double dangling = 0;
+            for (String user : followsGraph.keySet()) {
+                if (followsGraph.get(user).isEmpty()) {
+                    dangling += rank.get(user);
+                }
+            }
+            Map<String, Double> next = new HashMap<>();
+            for (String user : followsGraph.keySet()) {
+                next.put(user, (1 - damping) / n + damping * dangling / n);
+            }
+            for (String user : followsGraph.keySet()) {
+                Set<String> follows = followsGraph.get(user);
+                for (String followee : follows) {
+                    next.put(followee, next.get(followee) + damping * rank.get(user) / follows.size());
+                }
+            }
+            rank.putAll(next);
+        }
+        return rank;
+    }
+}
@@ -0,0 +1,127 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class HyperLogLogTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for add, estimate
+     *  distinct usernames: 0, small (linear counting), large (raw estimate)
+     *  duplicates: none, differing only in case, added via a text range
+     *  precision: minimum, default, maximum, out of range
+     *
+     * Partition for merge(other)
+     *  overlapping sets, disjoint sets, different precision
+     *
+     * Extract.estimateMentionedUsers and estimateAuthors are checked against
+     * exact counts; observed relative errors are printed.
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    /*
+     * @return |estimate - actual| / actual, after checking it is within 4
+     *         standard errors
+     */
+    private static double checkError(HyperLogLog estimator, long actual) {
+        double error = Math.abs(estimator.estimate() - actual) / (double) actual;
+        double standardError = 1.04 / Math.sqrt(1 << estimator.precision());
+        assertTrue(estimator + " vs " + actual, error <= 4 * standardError);
+        return error;
+    }
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmptyAndSmall() {
+        HyperLogLog estimator = new HyperLogLog();
+        assertEquals(0, estimator.estimate());
+
+        estimator.add("alyssa");
+        estimator.add("ALYSSA");
+        estimator.add("hi @Alyssa!", 4, 10);
+        estimator.add("bbitdiddle");
+
+        assertEquals(2, estimator.estimate());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testPrecisionOutOfRange() {
+        new HyperLogLog(HyperLogLog.MAX_PRECISION + 1);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testMergeDifferentPrecision() {
+        new HyperLogLog(10).merge(new HyperLogLog(11));
+    }
+
+    @Test
+    public void testErrorAcrossPrecisions() {
+        final int distinct = 200000;
+        for (int precision : new int[] { HyperLogLog.MIN_PRECISION, 10, HyperLogLog.DEFAULT_PRECISION,
+                HyperLogLog.MAX_PRECISION }) {
+            HyperLogLog estimator = new HyperLogLog(precision);
+            for (int i = 0; i < distinct; i++) {
+                estimator.add("user" + i);
+                estimator.add("USER" + (i / 2));
+            }
+            double error = checkError(estimator, distinct);
+            System.out.printf("HyperLogLog p=%d: %d distinct, estimate %d, error %.2f%%%n",
+                    precision, distinct, estimator.estimate(), 100 * error);
+        }
+    }
+
+    @Test
+    public void testMergeShards() {
+        HyperLogLog[] shards = new HyperLogLog[4];
+        HyperLogLog whole = new HyperLogLog(14);
+        for (int s = 0; s < shards.length; s++) {
+            shards[s] = new HyperLogLog(14);
+            // shards overlap: shard s covers [s * 25000, s * 25000 + 50000)
+            for (int i = s * 25000; i < s * 25000 + 50000; i++) {
+                shards[s].add("user" + i);
+                whole.add("user" + i);
+            }
+        }
+        HyperLogLog merged = shards[0].copy();
+        for (int s = 1; s < shards.length; s++) {
+            merged.merge(shards[s]);
+        }
+
+        assertEquals(whole.estimate(), merged.estimate());
+        checkError(merged, 125000);
+        assertEquals(50000, shards[0].estimate(), 50000 * 4 * 1.04 / 128);
+    }
+
+    @Test
+    public void testExtractEstimates() {
+        Random random = new Random(6005);
+        List<Tweet> tweets = new ArrayList<Tweet>();
+        for (int i = 0; i < 50000; i++) {
+            String text = "@user" + random.nextInt(30000) + " talks to @User" + random.nextInt(30000);
+            tweets.add(new Tweet(i, "author" + random.nextInt(20000), text, d1));
+        }
+        long mentioned = Extract.getMentionedUsers(tweets).size();
+        long authors = tweets.stream().map(tweet -> tweet.getAuthor().toLowerCase()).distinct().count();
+
+        double mentionedError = checkError(Extract.estimateMentionedUsers(tweets, 12), mentioned);
+        double authorsError = checkError(Extract.estimateAuthors(tweets, 12), authors);
+        System.out.printf("HyperLogLog p=12: mentioned users %d, error %.2f%%; authors %d, error %.2f%%%n",
+                mentioned, 100 * mentionedError, authors, 100 * authorsError);
+    }
+}
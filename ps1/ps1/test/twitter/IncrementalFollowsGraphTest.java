@@ -0,0 +1,81 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class IncrementalFollowsGraphTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for accept/acceptAll
+     *  batches: 0, 1, > 1; repeated evidence for an existing edge
+     *  self-mentions, mixed-case mentions
+     *
+     * Partition for followerCount(user) and influencers()
+     *  users with 0, 1, > 1 followers; ties in follower count
+     *  followsGraph() equals SocialNetwork.guessFollowsGraph over all accepted tweets
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "mike", "explosions anyone? explosions? anyone need explosions?", d1);
+    private static final Tweet tweet2 = new Tweet(2, "jane", "if @Mike beats @Andy, @Mike has to face me in the hitman challenge", d1);
+    private static final Tweet tweet3 = new Tweet(3, "andy", "come on @jane, do an @andy, if @mike beats you he wins", d1);
+    private static final Tweet tweet4 = new Tweet(4, "mike", "Finally won one! SUCK IT @ANDY", d1);
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmpty() {
+        IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+        graph.acceptAll(Collections.<Tweet>emptyList());
+
+        assertTrue("expected empty graph", graph.followsGraph().isEmpty());
+        assertEquals(Collections.emptyList(), graph.influencers());
+        assertEquals(0, graph.followerCount("mike"));
+    }
+
+    @Test
+    public void testBatchesMatchFullRebuild() {
+        IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+        graph.acceptAll(Arrays.asList(tweet1, tweet2));
+        assertEquals(SocialNetwork.guessFollowsGraph(Arrays.asList(tweet1, tweet2)), graph.followsGraph());
+
+        graph.acceptAll(Arrays.asList(tweet3, tweet4));
+        graph.accept(tweet2);
+        assertEquals(SocialNetwork.guessFollowsGraph(Arrays.asList(tweet1, tweet2, tweet3, tweet4)),
+                graph.followsGraph());
+    }
+
+    @Test
+    public void testFollowerCounts() {
+        IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+        graph.acceptAll(Arrays.asList(tweet1, tweet2, tweet3, tweet4));
+
+        assertEquals(2, graph.followerCount("MIKE"));
+        assertEquals(2, graph.followerCount("andy"));
+        assertEquals(1, graph.followerCount("jane"));
+        assertEquals(0, graph.followerCount("bert"));
+        assertEquals(Arrays.asList("andy", "mike", "jane"), graph.influencers());
+    }
+
+    @Test
+    public void testAuthorsWithoutFollowersRanked() {
+        IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+        graph.accept(tweet4);
+
+        assertEquals(Arrays.asList("andy", "mike"), graph.influencers());
+    }
+}
@@ -0,0 +1,84 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class LongHashSetTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for add(value), contains(value)
+     *  value: 0, negative, positive, Long.MIN_VALUE, Long.MAX_VALUE
+     *  value: new, already present
+     *  set: empty, partly full, full
+     *  values: sequential (like tweet ids), random; checked against HashSet
+     *
+     * Partition for clear()
+     *  set: empty, nonempty including 0
+     */
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testSpecialValues() {
+        LongHashSet set = new LongHashSet(8);
+        for (long value : new long[] { 0, -1, 1, Long.MIN_VALUE, Long.MAX_VALUE }) {
+            assertFalse(set.contains(value));
+            assertTrue(set.add(value));
+            assertFalse(set.add(value));
+            assertTrue(set.contains(value));
+        }
+        assertEquals(5, set.size());
+
+        set.clear();
+        assertEquals(0, set.size());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testFull() {
+        LongHashSet set = new LongHashSet(3);
+        set.add(0);
+        set.add(10);
+        set.add(20);
+
+        assertTrue(set.isFull());
+        assertFalse(set.add(10));
+        try {
+            set.add(30);
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException ise) {
+            assertFalse(set.contains(30));
+            assertEquals(3, set.size());
+        }
+    }
+
+    @Test
+    public void testMatchesHashSet() {
+        Random random = new Random(6005);
+        LongHashSet set = new LongHashSet(100000);
+        Set<Long> expected = new HashSet<Long>();
+        long base = 699999999999999999L;
+        for (int i = 0; i < 100000; i++) {
+            long value = random.nextBoolean() ? base + random.nextInt(60000) : random.nextLong();
+            assertEquals(expected.add(value), set.add(value));
+        }
+        assertEquals(expected.size(), set.size());
+        for (int i = 0; i < 60000; i++) {
+            assertEquals(expected.contains(base + i), set.contains(base + i));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LongIntHashMapTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for add(key, delta), get(key)
+     *  key: 0, negative, positive, Long.MIN_VALUE, Long.MAX_VALUE
+     *  key: absent, present
+     *  new value: 0 (key removed), nonzero
+     *  map: empty, growing past its initial capacity, shrinking back to empty
+     *  keys: packed user id pairs, random; checked against HashMap
+     */
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testSpecialKeys() {
+        LongIntHashMap map = new LongIntHashMap();
+        assertEquals(0, map.size());
+        for (long key : new long[] { 0, -1, 1, Long.MIN_VALUE, Long.MAX_VALUE }) {
+            assertEquals(0, map.get(key));
+            assertEquals(1, map.add(key, 1));
+            assertEquals(3, map.add(key, 2));
+            assertEquals(3, map.get(key));
+        }
+        assertEquals(5, map.size());
+
+        for (long key : new long[] { 0, -1, 1, Long.MIN_VALUE, Long.MAX_VALUE }) {
+            assertEquals(0, map.add(key, -3));
+            assertEquals(0, map.get(key));
+        }
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testAddZeroToAbsentKey() {
+        LongIntHashMap map = new LongIntHashMap();
+        assertEquals(0, map.add(42, 0));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testMatchesHashMap() {
+        Random random = new Random(6005);
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> expected = new HashMap<Long, Integer>();
+        for (int i = 0; i < 200000; i++) {
+            long key = random.nextBoolean()
+                    ? ((long) random.nextInt(100) << 32) | random.nextInt(100)
+                    : random.nextInt(1000) * 0x100000001L;
+            int delta = random.nextInt(3) == 0 ? 1 : -1;
+            int current = expected.getOrDefault(key, 0);
+            if (current == 0) {
+                delta = 1;
+            }
+            if (current + delta == 0) {
+                expected.remove(key);
+            } else {
+                expected.put(key, current + delta);
+            }
+            assertEquals(current + delta, map.add(key, delta));
+        }
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals((int) entry.getValue(), map.get(entry.getKey()));
+        }
+        for (int i = 0; i < 1000; i++) {
+            long key = i * 0x100000001L;
+            assertEquals((int) expected.getOrDefault(key, 0), map.get(key));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class MentionScannerTest {
+
+    /*
+     * Testing strategy
+     *
+     * Differential: MentionScanner must report exactly the mentions, in the
+     * same order, as the lookbehind regex Extract.getMentionedUsers used to use.
+     *
+     * Partition for scan(text) -> mentions
+     *  "@" at start of text, after a space, after a username character, after "."
+     *  username: one character, starts with a digit, contains "-" and "_",
+     *  ends the text, directly followed by another "@"
+     *  consecutive "@"s, non-ASCII neighbours
+     *  random texts over an alphabet dense in the characters above
+     */
+
+    private static final Pattern REFERENCE =
+            Pattern.compile("(?<=^|(?<=[^a-zA-Z0-9-_\\.]))@([A-Za-z]+[A-Za-z0-9-_]+)");
+
+    private static final String ALPHABET = "@@@aZb09-_. ,#!\u00e9\n";
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testHandPickedTexts() {
+        List<String> texts = Arrays.asList(
+                "", "@", "@a", "@ab", "@Ab1", "@1ab", "x @b", "x @bo",
+                "@@bob", "a@bob", "_@bob", ".@bob", "-@bob", "#@bob", "\u00e9@bob",
+                "@bob@ann", "@ab-c_d, @EF!", "mail bitdiddle@mit.edu or @mit.",
+                "@rivest talk in 30 minutes #hype, @dave's attending? ",
+                "junit tests in @Rivest #java8@mikes #software_construction");
+        for (String text : texts) {
+            assertEquals("mentions in \"" + text + "\"", reference(text), scanned(text));
+        }
+    }
+
+    @Test
+    public void testRandomTextsMatchRegex() {
+        Random random = new Random(6005);
+        for (int trial = 0; trial < 20000; trial++) {
+            char[] chars = new char[random.nextInt(24)];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            }
+            String text = new String(chars);
+            assertEquals("mentions in \"" + text + "\"", reference(text), scanned(text));
+        }
+    }
+
+    @Test
+    public void testBoundsWithoutFolding() {
+        List<String> raw = new ArrayList<String>();
+        MentionScanner.scan("hi @BoB and @x1", (text, start, end) -> raw.add(text.subSequence(start, end).toString()));
+
+        assertEquals(Arrays.asList("BoB", "x1"), raw);
+    }
+
+    @Test
+    public void testFoldGrowsBuffer() {
+        MentionScanner scanner = new MentionScanner();
+        String longName = "ABCDEFGHIJKLMNOPQRSTUVWXYZ_0123456789";
+
+        assertEquals(longName.toLowerCase(), scanner.fold("@" + longName, 1, longName.length() + 1));
+        assertEquals("ab", scanner.fold("AB", 0, 2));
+    }
+
+    private static List<String> reference(String text) {
+        List<String> mentions = new ArrayList<String>();
+        Matcher matcher = REFERENCE.matcher(text);
+        while (matcher.find()) {
+            mentions.add(matcher.group().substring(1).toLowerCase());
+        }
+        return mentions;
+    }
+
+    private static List<String> scanned(String text) {
+        List<String> mentions = new ArrayList<String>();
+        new MentionScanner().collect(text, mentions);
+        return mentions;
+    }
+}
@@ -0,0 +1,85 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class ParallelFollowsGraphTest {
+
+    /*
+     * Testing strategy
+     *
+     * ParallelFollowsGraph.guessFollowsGraph must equal
+     * SocialNetwork.guessFollowsGraph on the same tweets.
+     *
+     * Partition:
+     *  tweets.size: 0, less than one chunk, many chunks
+     *  pool parallelism: 1, > 1
+     *  list: random access, sequential
+     *  authors repeated across chunks, self-mentions, mixed-case mentions
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmpty() {
+        assertTrue("expected empty graph", ParallelFollowsGraph.guessFollowsGraph(new ArrayList<Tweet>()).isEmpty());
+    }
+
+    @Test
+    public void testSingleChunk() {
+        List<Tweet> tweets = randomTweets(100, new Random(1));
+
+        assertEquals(SocialNetwork.guessFollowsGraph(tweets), ParallelFollowsGraph.guessFollowsGraph(tweets));
+    }
+
+    @Test
+    public void testManyChunksMatchSequential() {
+        List<Tweet> tweets = randomTweets(30000, new Random(2));
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            assertEquals(SocialNetwork.guessFollowsGraph(tweets), ParallelFollowsGraph.guessFollowsGraph(tweets, single));
+            assertEquals(SocialNetwork.guessFollowsGraph(tweets), ParallelFollowsGraph.guessFollowsGraph(tweets, several));
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    @Test
+    public void testSequentialList() {
+        List<Tweet> tweets = new LinkedList<Tweet>(randomTweets(5000, new Random(3)));
+
+        assertEquals(SocialNetwork.guessFollowsGraph(tweets), ParallelFollowsGraph.guessFollowsGraph(tweets));
+    }
+
+    private static List<Tweet> randomTweets(int count, Random random) {
+        List<Tweet> tweets = new ArrayList<Tweet>(count);
+        for (int i = 0; i < count; i++) {
+            String author = "user" + random.nextInt(300);
+            StringBuilder text = new StringBuilder("hello");
+            for (int m = random.nextInt(4); m > 0; m--) {
+                String mentioned = "user" + random.nextInt(300);
+                text.append(" @").append(random.nextBoolean() ? mentioned.toUpperCase() : mentioned);
+            }
+            tweets.add(new Tweet(i, author, text.toString(), d1));
+        }
+        return tweets;
+    }
+}
@@ -0,0 +1,128 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class QueryTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for execute(store, authors, words)
+     *  clauses: none, one, several, several of the same kind
+     *  most selective clause: author, time, words
+     *  matches: none, some
+     *  indexes: consistent with the store, word index of the wrong size
+     *
+     * Partition for execute(list), matches(tweet)
+     *  checked against chained Filter calls and against execute(store, ...)
+     *  on random tweets
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
+    private static final Instant d3 = Instant.parse("2016-02-17T12:00:00Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+    private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype", d2);
+    private static final Tweet tweet3 = new Tweet(3, "Alyssa", "the talk was great", d3);
+
+    private static final List<Tweet> TWEETS = Arrays.asList(tweet1, tweet2, tweet3);
+
+    private static List<Tweet> execute(Query query, List<Tweet> tweets) {
+        TweetStore store = new TweetStore(tweets);
+        return query.execute(store, new AuthorIndex(store), new TweetIndex(tweets));
+    }
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testAll() {
+        assertEquals(TWEETS, execute(Query.all(), TWEETS));
+        assertEquals(TWEETS, Query.all().execute(TWEETS));
+    }
+
+    @Test
+    public void testConjunction() {
+        Query query = Query.all().author("ALYSSA").between(new Timespan(d1, d2)).containingAny(Arrays.asList("Talk"));
+
+        assertEquals(Arrays.asList(tweet1), execute(query, TWEETS));
+        assertEquals(Arrays.asList(tweet1), query.execute(TWEETS));
+        assertTrue(query.matches(tweet1));
+        assertFalse(query.matches(tweet3));
+    }
+
+    @Test
+    public void testNoMatches() {
+        Query query = Query.all().author("alyssa").author("bbitdiddle");
+
+        assertEquals(Arrays.asList(), execute(query, TWEETS));
+    }
+
+    @Test
+    public void testPlanPicksMostSelective() {
+        List<Tweet> tweets = new ArrayList<Tweet>();
+        for (int i = 0; i < 100; i++) {
+            tweets.add(new Tweet(i, i == 0 ? "rare" : "common", i < 10 ? "word" : "other", d1.plusSeconds(i)));
+        }
+        TweetStore store = new TweetStore(tweets);
+        AuthorIndex authors = new AuthorIndex(store);
+        TweetIndex words = new TweetIndex(tweets);
+        Timespan oneTweet = new Timespan(d1.plusSeconds(50), d1.plusSeconds(50));
+
+        assertEquals(0, Query.all().author("rare").containingAny(Arrays.asList("word")).plan(store, authors, words));
+        assertEquals(1, Query.all().author("common").between(oneTweet).plan(store, authors, words));
+        assertEquals(1, Query.all().author("common").containingAny(Arrays.asList("word")).plan(store, authors, words));
+        assertEquals(-1, Query.all().plan(store, authors, words));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testMismatchedIndex() {
+        TweetStore store = new TweetStore(TWEETS);
+        Query.all().execute(store, new AuthorIndex(store), new TweetIndex(Arrays.asList(tweet1)));
+    }
+
+    @Test
+    public void testMatchesChainedFilters() {
+        Random random = new Random(6005);
+        String[] authors = { "alyssa", "ben", "cy" };
+        String[] vocabulary = { "talk", "rivest", "mit", "hype", "great" };
+        List<Tweet> tweets = new ArrayList<Tweet>();
+        for (int i = 0; i < 500; i++) {
+            String text = vocabulary[random.nextInt(vocabulary.length)] + " #"
+                    + vocabulary[random.nextInt(vocabulary.length)].toUpperCase();
+            tweets.add(new Tweet(i, authors[random.nextInt(authors.length)], text,
+                    d1.plusSeconds(random.nextInt(3600))));
+        }
+        TweetStore store = new TweetStore(tweets);
+        AuthorIndex authorIndex = new AuthorIndex(store);
+        TweetIndex wordIndex = new TweetIndex(tweets);
+
+        for (int trial = 0; trial < 50; trial++) {
+            String author = authors[random.nextInt(authors.length)];
+            Instant start = d1.plusSeconds(random.nextInt(3600));
+            Timespan timespan = new Timespan(start, start.plusSeconds(random.nextInt(3600)));
+            List<String> words = Arrays.asList(vocabulary[random.nextInt(vocabulary.length)],
+                    vocabulary[random.nextInt(vocabulary.length)]);
+
+            List<Tweet> expected = Filter.containing(
+                    Filter.inTimespan(Filter.writtenBy(tweets, author), timespan), words);
+            Query query = Query.all().containingAny(words).author(author).between(timespan);
+            assertEquals(expected, query.execute(store, authorIndex, wordIndex));
+            assertEquals(expected, query.execute(tweets));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class SymbolTableTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for intern(name), intern(text, start, end)
+     *  name: new, seen before with same case, seen before with different case
+     *  range: whole text, inside a longer text
+     *  table size: small, large enough to rehash
+     *
+     * Partition for find
+     *  name: interned, never interned
+     *
+     * Partition for name(id)
+     *  id: in range, out of range, removed
+     *
+     * Partition for remove(id), idLimit()
+     *  id: only name, inside a probe run that must shift back
+     *  later intern: reuses a removed id, or takes a new one when none is free
+     *  random interns and removals: same as a HashMap
+     */
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testInternFoldsCase() {
+        SymbolTable users = new SymbolTable();
+
+        int alyssa = users.intern("Alyssa");
+        int ben = users.intern("ben");
+
+        assertEquals(0, alyssa);
+        assertEquals(1, ben);
+        assertEquals(alyssa, users.intern("ALYSSA"));
+        assertEquals(2, users.size());
+        assertEquals("alyssa", users.name(alyssa));
+    }
+
+    @Test
+    public void testInternRangeSharesString() {
+        SymbolTable users = new SymbolTable();
+        String first = users.name(users.intern("bbitdiddle"));
+
+        int id = users.intern("hi @BBitdiddle!", 4, 14);
+
+        assertEquals(0, id);
+        assertSame(first, users.name(id));
+    }
+
+    @Test
+    public void testFind() {
+        SymbolTable users = new SymbolTable();
+        users.intern("alyssa");
+
+        assertEquals(0, users.find("AlYsSa"));
+        assertEquals(0, users.find("to @alyssa", 4, 10));
+        assertEquals(-1, users.find("ben"));
+        assertEquals(1, users.size());
+    }
+
+    @Test
+    public void testManyNamesRehash() {
+        SymbolTable users = new SymbolTable();
+        Random random = new Random(6005);
+        List<String> names = new ArrayList<String>();
+        for (int i = 0; i < 10000; i++) {
+            String name = "user" + Integer.toString(random.nextInt(Integer.MAX_VALUE), 36) + "_" + i;
+            names.add(name);
+            assertEquals(i, users.intern(name));
+        }
+
+        assertEquals(names.size(), users.size());
+        for (int i = 0; i < names.size(); i++) {
+            assertEquals(i, users.find(names.get(i).toUpperCase()));
+            assertEquals(names.get(i), users.name(i));
+        }
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testNameOutOfRange() {
+        SymbolTable users = new SymbolTable();
+        users.intern("alyssa");
+        users.name(1);
+    }
+
+    @Test
+    public void testRemoveReusesId() {
+        SymbolTable users = new SymbolTable();
+        int alyssa = users.intern("alyssa");
+        int ben = users.intern("ben");
+
+        users.remove(alyssa);
+        assertEquals(1, users.size());
+        assertEquals(2, users.idLimit());
+        assertEquals(-1, users.find("Alyssa"));
+        assertEquals(ben, users.find("BEN"));
+
+        assertEquals(alyssa, users.intern("carol"));
+        assertEquals("carol", users.name(alyssa));
+        assertEquals(2, users.intern("alyssa"));
+        assertEquals(3, users.idLimit());
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testNameRemoved() {
+        SymbolTable users = new SymbolTable();
+        users.remove(users.intern("alyssa"));
+        users.name(0);
+    }
+
+    @Test
+    public void testRemoveMatchesHashMap() {
+        SymbolTable users = new SymbolTable();
+        Map<String, Integer> expected = new HashMap<String, Integer>();
+        Random random = new Random(6005);
+        for (int i = 0; i < 50000; i++) {
+            String name = "user" + random.nextInt(2000);
+            Integer id = expected.get(name);
+            if (id != null && random.nextBoolean()) {
+                users.remove(id);
+                expected.remove(name);
+            } else {
+                int interned = users.intern(name.toUpperCase());
+                if (id != null) {
+                    assertEquals((int) id, interned);
+                }
+                expected.put(name, interned);
+            }
+        }
+
+        assertEquals(expected.size(), users.size());
+        assertTrue(users.idLimit() <= 2000);
+        for (int i = 0; i < 2000; i++) {
+            String name = "user" + i;
+            Integer id = expected.get(name);
+            assertEquals(id == null ? -1 : (int) id, users.find(name));
+            if (id != null) {
+                assertEquals(name, users.name(id));
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import org.junit.Test;
+
+public class TextQueryTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for parse(query)
+     *  operators: none, AND (explicit, implicit), OR, NOT, parentheses,
+     *  nested; lower-case operator words are terms
+     *  operands: term, quoted phrase of 1 or > 1 words, term with no letters
+     *  malformed: unbalanced parentheses, unterminated phrase, missing operand
+     *
+     * Partition for evaluate(index)
+     *  phrase: words adjacent, present but apart, in the wrong order, repeated
+     *  NOT: alone, inside AND, double negation
+     *  matches: none, some, all
+     *  random queries checked against a brute-force evaluation
+     *
+     * Partition for positions(word, ordinal) and gallop
+     *  word: absent, once, more than once in the tweet
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+    private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype", d1);
+    private static final Tweet tweet3 = new Tweet(3, "alyssa", "talk talk talk, Rivest!", d1);
+
+    private static final TweetIndex INDEX = new TweetIndex(Arrays.asList(tweet1, tweet2, tweet3));
+
+    private static List<Tweet> search(String query) {
+        return Filter.matching(INDEX, query);
+    }
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testOperators() {
+        assertEquals(Arrays.asList(tweet1, tweet2, tweet3), search("rivest AND talk"));
+        assertEquals(Arrays.asList(tweet1), search("Rivest reasonable"));
+        assertEquals(Arrays.asList(tweet1, tweet2), search("reasonable OR #HYPE"));
+        assertEquals(Arrays.asList(tweet2, tweet3), search("talk NOT reasonable"));
+        assertEquals(Arrays.asList(tweet3), search("NOT (reasonable OR minutes)"));
+        assertEquals(Arrays.asList(tweet1), search("NOT NOT reasonable"));
+        assertEquals(Arrays.asList(), search("rivest AND nobody"));
+        assertEquals(Arrays.asList(), search("30"));
+    }
+
+    @Test
+    public void testLowerCaseOperatorsAreTerms() {
+        assertEquals(Arrays.asList(), search("rivest and talk"));
+        assertEquals(Arrays.asList(), search("rivest or talk"));
+        assertEquals(Arrays.asList(tweet1), search("rivest so talk"));
+    }
+
+    @Test
+    public void testPhrase() {
+        assertEquals(Arrays.asList(tweet2), search("\"rivest talk\""));
+        assertEquals(Arrays.asList(tweet1, tweet3), search("\"talk\" NOT \"rivest talk\""));
+        assertEquals(Arrays.asList(tweet3), search("\"TALK TALK talk rivest\""));
+        assertEquals(Arrays.asList(), search("\"talk rivest talk\""));
+        assertEquals(Arrays.asList(tweet2), search("\"in 30 minutes\""));
+    }
+
+    @Test
+    public void testPositions() {
+        assertArrayEquals(new int[] { 0, 1, 2 }, INDEX.positions("Talk", 2));
+        assertArrayEquals(new int[] { 4 }, INDEX.positions("talk", 0));
+        assertArrayEquals(new int[0], INDEX.positions("hype", 0));
+        assertArrayEquals(new int[0], INDEX.positions("nobody", 0));
+    }
+
+    @Test
+    public void testGallop() {
+        int[] sorted = { 1, 3, 5, 7, 9, 11, 13, 15, 17 };
+        for (int from = 0; from <= sorted.length; from++) {
+            for (int key = 0; key <= 18; key++) {
+                int expected = from;
+                while (expected < sorted.length && sorted[expected] < key) {
+                    expected++;
+                }
+                assertEquals(expected, TextQuery.gallop(sorted, from, sorted.length, key));
+            }
+        }
+    }
+
+    @Test
+    public void testMalformed() {
+        for (String query : Arrays.asList("(rivest", "rivest)", "\"rivest talk", "rivest OR", "AND rivest", "", "NOT")) {
+            try {
+                TextQuery.parse(query);
+                fail("expected IllegalArgumentException for " + query);
+            } catch (IllegalArgumentException iae) {
+                // expected
+            }
+        }
+    }
+
+    /*
+     * A random query with its brute-force meaning over tokenized tweets.
+     */
+    private static class Generated {
+        final String query;
+        final Predicate<List<String>> meaning;
+
+        Generated(String query, Predicate<List<String>> meaning) {
+            this.query = query;
+            this.meaning = meaning;
+        }
+    }
+
+    private static final String[] VOCABULARY = { "a", "b", "c", "d" };
+
+    private static Generated generate(Random random, int depth) {
+        switch (depth == 0 ? random.nextInt(2) : random.nextInt(6)) {
+        case 0: {
+            String word = VOCABULARY[random.nextInt(VOCABULARY.length)];
+            return new Generated(random.nextBoolean() ? word : word.toUpperCase(), words -> words.contains(word));
+        }
+        case 1: {
+            List<String> phrase = new ArrayList<String>();
+            for (int i = 1 + random.nextInt(3); i > 0; i--) {
+                phrase.add(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+            }
+            return new Generated("\"" + String.join(" ", phrase) + "\"",
+                    words -> Collections.indexOfSubList(words, phrase) >= 0);
+        }
+        case 2: {
+            Generated inner = generate(random, depth - 1);
+            return new Generated("NOT " + inner.query, inner.meaning.negate());
+        }
+        case 3: {
+            Generated left = generate(random, depth - 1);
+            Generated right = generate(random, depth - 1);
+            return new Generated("(" + left.query + " OR " + right.query + ")", left.meaning.or(right.meaning));
+        }
+        case 4: {
+            Generated left = generate(random, depth - 1);
+            Generated right = generate(random, depth - 1);
+            return new Generated("(" + left.query + " AND " + right.query + ")", left.meaning.and(right.meaning));
+        }
+        default: {
+            Generated left = generate(random, depth - 1);
+            Generated right = generate(random, depth - 1);
+            return new Generated("(" + left.query + " " + right.query + ")", left.meaning.and(right.meaning));
+        }
+        }
+    }
+
+    @Test
+    public void testMatchesBruteForce() {
+        Random random = new Random(6005);
+        List<Tweet> tweets = new ArrayList<Tweet>();
+        List<List<String>> tokenized = new ArrayList<List<String>>();
+        for (int i = 0; i < 300; i++) {
+            List<String> words = new ArrayList<String>();
+            StringBuilder text = new StringBuilder();
+            for (int j = random.nextInt(8); j > 0; j--) {
+                String word = VOCABULARY[random.nextInt(VOCABULARY.length)];
+                words.add(word);
+                text.append(random.nextBoolean() ? "#" : "").append(word).append(random.nextBoolean() ? "! " : " ");
+            }
+            tweets.add(new Tweet(i, "alyssa", text.toString(), d1));
+            tokenized.add(words);
+        }
+        TweetIndex index = new TweetIndex(tweets);
+
+        for (int trial = 0; trial < 500; trial++) {
+            Generated generated = generate(random, 3);
+            List<Tweet> expected = new ArrayList<Tweet>();
+            for (int i = 0; i < tweets.size(); i++) {
+                if (generated.meaning.test(tokenized.get(i))) {
+                    expected.add(tweets.get(i));
+                }
+            }
+            assertEquals(generated.query, expected, TextQuery.parse(generated.query).search(index));
+        }
+    }
+}
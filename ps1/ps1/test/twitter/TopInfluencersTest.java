@@ -0,0 +1,87 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests for SocialNetwork.influencers(followsGraph, k), kept apart from
+ * SocialNetworkTest because that class must only test the staff spec.
+ */
+public class TopInfluencersTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for influencers(followsGraph, k) -> ranking
+     *  k: 0, < number of users, >= number of users
+     *  ties in follower count, users with no followers
+     *  usernames in mixed case across keys and sets
+     *  random graphs, against a full sort of brute-force counts
+     */
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testZeroK() {
+        Map<String, Set<String>> followsGraph = new HashMap<>();
+        followsGraph.put("mike", new HashSet<>(Arrays.asList("andy")));
+
+        assertEquals(Collections.emptyList(), SocialNetwork.influencers(followsGraph, 0));
+    }
+
+    @Test
+    public void testTiesAlphabetical() {
+        Map<String, Set<String>> followsGraph = new HashMap<>();
+        followsGraph.put("zed", new HashSet<>(Arrays.asList("bert", "ernie")));
+        followsGraph.put("Amy", new HashSet<>(Arrays.asList("Ernie", "bert")));
+
+        assertEquals(Arrays.asList("bert", "ernie", "amy", "zed"), SocialNetwork.influencers(followsGraph, 10));
+        assertEquals(Arrays.asList("bert", "ernie", "amy"), SocialNetwork.influencers(followsGraph, 3));
+        assertEquals(Arrays.asList("bert", "ernie", "amy", "zed"), SocialNetwork.influencers(followsGraph));
+    }
+
+    @Test
+    public void testRandomGraphsMatchFullSort() {
+        Random random = new Random(6005);
+        for (int trial = 0; trial < 50; trial++) {
+            Map<String, Set<String>> followsGraph = new HashMap<>();
+            Map<String, Integer> counts = new HashMap<>();
+            int users = 1 + random.nextInt(60);
+            for (int u = 0; u < users; u++) {
+                String user = "u" + u;
+                Set<String> follows = new HashSet<>();
+                for (int f = random.nextInt(6); f > 0; f--) {
+                    follows.add("u" + random.nextInt(users));
+                }
+                follows.remove(user);
+                followsGraph.put(user, follows);
+                counts.putIfAbsent(user, 0);
+                follows.forEach(followee -> counts.merge(followee, 1, Integer::sum));
+            }
+            List<String> expected = new ArrayList<>(counts.keySet());
+            expected.sort((a, b) -> counts.get(a).equals(counts.get(b))
+                    ? a.compareTo(b) : counts.get(b) - counts.get(a));
+
+            int k = random.nextInt(users + 5);
+            assertEquals(expected.subList(0, Math.min(k, expected.size())),
+                    SocialNetwork.influencers(followsGraph, k));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TrendingMentionsTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for accept(tweet)
+     *  tweet: in the current bucket, in an earlier live bucket, older than
+     *  the window, later than the window (window jumps)
+     *  mentions: none, one, the same user twice in different case
+     *
+     * Partition for top(k)
+     *  k: 0, < candidates, > candidates
+     *  candidates: fewer than capacity, more users than capacity
+     *  ties in estimated count
+     *
+     * Partition for estimate(username)
+     *  user: never mentioned, mentioned in the window, mentioned only in
+     *  buckets that expired
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    private static Tweet tweet(long id, String text, Instant timestamp) {
+        return new Tweet(id, "alyssa", text, timestamp);
+    }
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testCountsOncePerTweet() {
+        TrendingMentions trending = new TrendingMentions(Duration.ofMinutes(10), 10);
+
+        trending.accept(tweet(1, "@Ben and @ben, also @cy", d1));
+        trending.accept(tweet(2, "@BEN again", d1.plusSeconds(30)));
+        trending.accept(tweet(3, "no mentions here", d1.plusSeconds(40)));
+
+        assertEquals(2, trending.estimate("ben"));
+        assertEquals(1, trending.estimate("Cy"));
+        assertEquals(0, trending.estimate("dan"));
+        assertEquals(Arrays.asList("ben", "cy"), trending.top(5));
+        assertEquals(Arrays.asList("ben"), trending.top(1));
+        assertEquals(Arrays.asList(), trending.top(0));
+    }
+
+    @Test
+    public void testWindowSlides() {
+        TrendingMentions trending = new TrendingMentions(Duration.ofMinutes(10), 10);
+
+        trending.accept(tweet(1, "@ben", d1));
+        trending.accept(tweet(2, "@ben @cy", d1.plusSeconds(5 * 60)));
+        trending.accept(tweet(3, "@cy", d1.plusSeconds(9 * 60)));
+        assertEquals(Arrays.asList("ben", "cy"), trending.top(2));
+
+        trending.advanceTo(d1.plusSeconds(10 * 60));
+        assertEquals(1, trending.estimate("ben"));
+        assertEquals(Arrays.asList("cy", "ben"), trending.top(2));
+
+        trending.accept(tweet(4, "late @dan", d1.plusSeconds(30)));
+        trending.accept(tweet(5, "late @eva", d1.plusSeconds(6 * 60)));
+        assertEquals(0, trending.estimate("dan"));
+        assertEquals(1, trending.estimate("eva"));
+
+        trending.accept(tweet(6, "@zed", d1.plusSeconds(60 * 60)));
+        assertEquals(Arrays.asList("zed"), trending.top(5));
+        assertEquals(0, trending.estimate("cy"));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testWidthNotPowerOfTwo() {
+        new TrendingMentions(Duration.ofMinutes(1), 6, 1000, 4, 10);
+    }
+
+    @Test
+    public void testHeavyHittersWithinBounds() {
+        final int users = 5000;
+        final int width = 1024;
+        final int depth = 4;
+        TrendingMentions trending = new TrendingMentions(Duration.ofMinutes(60), 12, width, depth, 64);
+        Random random = new Random(6005);
+        Map<String, Integer> exact = new HashMap<String, Integer>();
+        List<Tweet> recent = new ArrayList<Tweet>();
+        int total = 0;
+        for (int i = 0; i < 50000; i++) {
+            // Zipf-like: user r is mentioned with probability ~ 1 / (r + 1)
+            int rank = (int) Math.floor(Math.pow(users + 1, random.nextDouble())) - 1;
+            String user = "user" + rank;
+            Instant timestamp = d1.plusMillis(i * 100L);
+            trending.accept(tweet(i, "hi @" + user, timestamp));
+            recent.add(tweet(i, user, timestamp));
+        }
+        // the last tweet is 83m20s after d1, in the 5-minute bucket starting at
+        // 80m, so the 12 live buckets start at 25m
+        Instant windowStart = d1.plus(Duration.ofMinutes(25));
+        for (Tweet t : recent) {
+            if (!t.getTimestamp().isBefore(windowStart)) {
+                exact.merge(t.getText(), 1, Integer::sum);
+                total++;
+            }
+        }
+
+        List<String> top = trending.top(10);
+        assertEquals(10, top.size());
+        List<String> expected = new ArrayList<String>(exact.keySet());
+        expected.sort((a, b) -> exact.get(b) - exact.get(a));
+        for (String user : top) {
+            int estimate = trending.estimate(user);
+            assertTrue(estimate >= exact.get(user));
+            assertTrue("error bound", estimate - exact.get(user) <= 2.0 * total / width);
+        }
+        assertEquals(expected.subList(0, 3), top.subList(0, 3));
+    }
+}
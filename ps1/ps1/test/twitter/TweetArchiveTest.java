@@ -0,0 +1,116 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TweetArchiveTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for write(tweets) then open() -> archive
+     *  tweets.size: 0, 1, several blocks with a partial last block
+     *  ids and timestamps increasing, decreasing, far apart
+     *  authors repeated, non-ASCII text, empty text
+     *  access by get(i) and by iterator()
+     *  file that is not an archive
+     *
+     * Partition for scanMentions, Extract.getMentionedUserIds(archive)
+     *  archive: empty, many tweets with mentions next to non-ASCII text
+     *  same mentions as Extract.getMentionedUserIds(list)
+     */
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        Path file = folder.newFile().toPath();
+        TweetArchive.write(Collections.<Tweet>emptyList(), file);
+
+        assertTrue("expected empty archive", TweetArchive.open(file).isEmpty());
+    }
+
+    @Test
+    public void testSingleTweet() throws IOException {
+        Path file = folder.newFile().toPath();
+        Tweet tweet = new Tweet(42, "alyssa", "caf\u00e9 @bbitdiddle \ud83d\ude00", Instant.parse("2016-02-17T10:00:00Z"));
+        TweetArchive.write(Collections.singletonList(tweet), file);
+        TweetArchive archive = TweetArchive.open(file);
+
+        assertEquals(1, archive.size());
+        assertSameTweet(tweet, archive.get(0));
+    }
+
+    @Test
+    public void testManyBlocksRoundTrip() throws IOException {
+        Random random = new Random(6005);
+        List<Tweet> tweets = new ArrayList<Tweet>();
+        long id = Long.MAX_VALUE / 2;
+        long millis = Instant.parse("2016-02-17T10:00:00Z").toEpochMilli();
+        for (int i = 0; i < 300; i++) {
+            id += random.nextInt(2000) - 1000;
+            millis += random.nextInt(60000) - 5000;
+            String text = i % 17 == 0 ? "" : "tweet " + i + " about @user" + random.nextInt(9);
+            tweets.add(new Tweet(id, "user" + random.nextInt(9), text, Instant.ofEpochMilli(millis)));
+        }
+        tweets.add(new Tweet(Long.MIN_VALUE, "far", "far away", Instant.ofEpochMilli(0)));
+        Path file = folder.newFile().toPath();
+        TweetArchive.write(tweets, file);
+        TweetArchive archive = TweetArchive.open(file);
+
+        assertEquals(tweets.size(), archive.size());
+        for (int i = tweets.size() - 1; i >= 0; i--) {
+            assertSameTweet(tweets.get(i), archive.get(i));
+        }
+        Iterator<Tweet> iterator = archive.iterator();
+        for (Tweet tweet : tweets) {
+            assertSameTweet(tweet, iterator.next());
+        }
+        assertFalse("expected end of archive", iterator.hasNext());
+    }
+
+    @Test(expected=IOException.class)
+    public void testNotAnArchive() throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, "[{\"id\":1}]".getBytes("UTF-8"));
+        TweetArchive.open(file);
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() throws IOException {
+        Path file = folder.newFile().toPath();
+        TweetArchive.write(Collections.<Tweet>emptyList(), file);
+        TweetArchive.open(file).get(0);
+    }
+
+    private static void assertSameTweet(Tweet expected, Tweet actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getAuthor(), actual.getAuthor());
+        assertEquals(expected.getText(), actual.getText());
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+    }
+}
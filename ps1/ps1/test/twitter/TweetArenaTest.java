@@ -0,0 +1,160 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TweetArenaTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for append(tweet), get(ordinal)
+     *  text: empty, ASCII, non-ASCII (2-byte, 3-byte, surrogate pair)
+     *  timestamp: whole seconds, with nanoseconds
+     *  author: new, seen before in the same case, in another case
+     *  arena: empty, grown past its initial capacity
+     *  ordinal: in range, out of range
+     *
+     * Partition for writtenBy, inTimespan, containing, getTimespan, and the
+     * Filter and Extract overloads that use them
+     *  result: empty, some tweets, all tweets
+     *  matches next to non-ASCII characters, at timespan endpoints
+     *  random tweets: same results as the List versions
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Instant d2 = Instant.parse("2016-02-17T11:00:00.000000001Z");
+    private static final Instant d3 = Instant.parse("2016-02-17T12:00:00Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+    private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "caf\u00e9\u2603talk @Alyssa \ud83d\ude00 #hype", d2);
+    private static final Tweet tweet3 = new Tweet(3, "Alyssa", "", d3);
+    private static final Tweet tweet4 = new Tweet(4, "ben", "\u00e9@ben_b and x@notme, \u00fc@ok-1", d2);
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmpty() {
+        TweetArena arena = new TweetArena();
+
+        assertEquals(0, arena.size());
+        assertEquals(0, arena.textBytes());
+        assertEquals(0, arena.writtenBy("alyssa").length);
+        assertEquals(0, arena.containing(Arrays.asList("talk")).length);
+        assertTrue(arena.asList().isEmpty());
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testGetOutOfRange() {
+        new TweetArena(Arrays.asList(tweet1)).get(1);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3, tweet4);
+        TweetArena arena = new TweetArena(tweets);
+
+        assertEquals(4, arena.size());
+        for (int i = 0; i < tweets.size(); i++) {
+            Tweet tweet = arena.get(i);
+            assertEquals(tweets.get(i).getId(), tweet.getId());
+            assertEquals(tweets.get(i).getAuthor(), tweet.getAuthor());
+            assertEquals(tweets.get(i).getText(), tweet.getText());
+            assertEquals(tweets.get(i).getTimestamp(), tweet.getTimestamp());
+            assertEquals(tweets.get(i).getId(), arena.getId(i));
+            assertEquals(tweets.get(i).getText(), arena.getText(i));
+        }
+        assertEquals("Alyssa", arena.getAuthor(2));
+        assertEquals(d2, arena.getTimestamp(1));
+        assertEquals(tweets, arena.asList());
+    }
+
+    @Test
+    public void testWrittenBy() {
+        TweetArena arena = new TweetArena(Arrays.asList(tweet1, tweet2, tweet3, tweet4));
+
+        assertArrayEquals(new int[] { 0, 2 }, arena.writtenBy("ALYSSA"));
+        assertArrayEquals(new int[] { 3 }, arena.writtenBy("ben"));
+        assertArrayEquals(new int[0], arena.writtenBy("carol"));
+        assertEquals(Arrays.asList(tweet1, tweet3), Filter.writtenBy(arena, "alyssa"));
+    }
+
+    @Test
+    public void testInTimespan() {
+        TweetArena arena = new TweetArena(Arrays.asList(tweet1, tweet2, tweet3, tweet4));
+
+        assertArrayEquals(new int[] { 1, 3 }, arena.inTimespan(new Timespan(d2, d2)));
+        assertArrayEquals(new int[] { 0 }, arena.inTimespan(new Timespan(d1, d2.minusNanos(1))));
+        assertArrayEquals(new int[] { 0, 1, 2, 3 }, arena.inTimespan(new Timespan(d1, d3)));
+        assertEquals(Arrays.asList(tweet2, tweet3, tweet4), Filter.inTimespan(arena, new Timespan(d2, d3)));
+
+        assertEquals(new Timespan(d1, d3), Extract.getTimespan(arena));
+        assertEquals(new Timespan(d2, d2), Extract.getTimespan(new TweetArena(Arrays.asList(tweet2, tweet4))));
+    }
+
+    @Test
+    public void testContaining() {
+        TweetArena arena = new TweetArena(Arrays.asList(tweet1, tweet2, tweet3, tweet4));
+
+        assertArrayEquals(new int[] { 0 }, arena.containing(Arrays.asList("TALK")));
+        assertArrayEquals(new int[] { 1 }, arena.containing(Arrays.asList("caf")));
+        assertArrayEquals(new int[] { 1 }, arena.containing(Arrays.asList("hype")));
+        assertArrayEquals(new int[0], arena.containing(Arrays.asList("caf\u00e9")));
+        assertEquals(Filter.containing(arena.asList(), Arrays.asList("talk", "hype", "ben")),
+                Filter.containing(arena, Arrays.asList("talk", "hype", "ben")));
+    }
+
+    @Test
+    public void testMentions() {
+        TweetArena arena = new TweetArena(Arrays.asList(tweet1, tweet2, tweet3, tweet4));
+
+        assertEquals(Extract.getMentionedUsers(arena.asList()), Extract.getMentionedUsers(arena));
+        assertTrue(Extract.getMentionedUsers(arena).contains("alyssa"));
+        assertTrue(Extract.getMentionedUsers(arena).contains("ok-1"));
+        assertFalse(Extract.getMentionedUsers(arena).contains("notme"));
+    }
+
+    @Test
+    public void testSameAsListVersions() {
+        Random random = new Random(6005);
+        String[] pieces = { "talk", "Rivest", "@alyssa", "@BEN", "x@y", "\u00e9", "\u00fc@ok", "\ud83d\ude00",
+            "caf\u00e9", "mit.edu", "#hype", "@", "." };
+        List<Tweet> tweets = new ArrayList<Tweet>();
+        TweetArena arena = new TweetArena();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int j = random.nextInt(8); j > 0; j--) {
+                text.append(pieces[random.nextInt(pieces.length)]);
+                text.append(random.nextInt(3) == 0 ? "" : " ");
+            }
+            Tweet tweet = new Tweet(i, "user" + random.nextInt(20), text.toString(),
+                    d1.plusSeconds(random.nextInt(7200)));
+            tweets.add(tweet);
+            assertEquals(i, arena.append(tweet));
+        }
+
+        assertEquals(tweets, arena.asList());
+        assertEquals(Extract.getTimespan(tweets), Extract.getTimespan(arena));
+        assertEquals(Extract.getMentionedUsers(tweets), Extract.getMentionedUsers(arena));
+        assertEquals(Filter.writtenBy(tweets, "USER7"), Filter.writtenBy(arena, "USER7"));
+        Timespan hour = new Timespan(d1.plusSeconds(1800), d1.plusSeconds(5400));
+        assertEquals(Filter.inTimespan(tweets, hour), Filter.inTimespan(arena, hour));
+        for (List<String> words : Arrays.asList(Arrays.asList("talk"), Arrays.asList("caf", "hype"),
+                Arrays.asList("alyssa", "RIVEST"), Arrays.asList("edu"))) {
+            assertEquals(Filter.containing(tweets, words), Filter.containing(arena, words));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TweetDumpLoaderTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for load(directory, store)
+     *  files: none, JSON, archive, neither (ignored), subdirectory (ignored),
+     *  malformed JSON
+     *  duplicate ids: none, across files, with tweets already in the store
+     *  concurrency: 1, more than the number of files
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static String json(long id, String author, String text) {
+        return "{\"id\":" + id + ",\"text\":\"" + text + "\",\"created_at\":\"Wed Feb 17 10:00:00 +0000 2016\","
+                + "\"user\":{\"screen_name\":\"" + author + "\"}}";
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.write(folder.getRoot().toPath().resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmptyDirectory() throws Exception {
+        TweetStore store = new TweetStore();
+
+        TweetDumpLoader.LoadReport report = new TweetDumpLoader(4).load(folder.getRoot().toPath(), store);
+
+        assertEquals(0, report.getLoaded());
+        assertEquals(0, store.size());
+        assertTrue(report.getFiles().isEmpty());
+    }
+
+    @Test
+    public void testMixedFilesWithDuplicates() throws Exception {
+        write("a.json", "[" + json(1, "alyssa", "one") + "," + json(2, "ben", "two") + "]");
+        write("b.json", "[" + json(2, "ben", "two again") + "," + json(3, "cy", "three") + "]");
+        TweetArchive.write(Arrays.asList(new Tweet(4, "dan", "four", d1), new Tweet(1, "alyssa", "one", d1)),
+                folder.getRoot().toPath().resolve("c.twa"));
+        write("notes.txt", "not tweets");
+        folder.newFolder("nested");
+        TweetStore store = new TweetStore(Arrays.asList(new Tweet(3, "cy", "three", d1)));
+
+        for (int concurrency : new int[] { 1, 8 }) {
+            TweetStore copy = new TweetStore(Arrays.asList(store.get(0)));
+            TweetDumpLoader.LoadReport report = new TweetDumpLoader(concurrency).load(folder.getRoot().toPath(), copy);
+
+            assertEquals(3, report.getLoaded());
+            assertEquals(3, report.getDuplicates());
+            List<Long> ids = new ArrayList<Long>();
+            for (int i = 0; i < copy.size(); i++) {
+                ids.add(copy.get(i).getId());
+            }
+            assertEquals(Arrays.asList(3L, 1L, 2L, 4L), ids);
+            assertEquals(3, report.getFiles().size());
+            TweetDumpLoader.FileMetrics b = report.getFiles().get(1);
+            assertEquals("b.json", b.getFile().getFileName().toString());
+            assertEquals(2, b.getTweets());
+            assertEquals(0, b.getLoaded());
+            assertTrue(b.getBytes() > 0);
+            assertTrue(b.getNanos() > 0);
+        }
+    }
+
+    @Test
+    public void testMalformedFileLeavesStoreUnchanged() throws Exception {
+        write("a.json", "[" + json(1, "alyssa", "one") + "]");
+        write("b.json", "{\"not\": \"an array\"}");
+        TweetStore store = new TweetStore();
+
+        try {
+            new TweetDumpLoader(2).load(folder.getRoot().toPath(), store);
+            fail("expected IOException");
+        } catch (IOException ioe) {
+            assertTrue(ioe.getMessage(), ioe.getMessage().contains("b.json"));
+        }
+        assertEquals(0, store.size());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testBadConcurrency() {
+        new TweetDumpLoader(0);
+    }
+}
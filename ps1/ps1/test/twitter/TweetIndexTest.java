@@ -0,0 +1,79 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class TweetIndexTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for postings(word), containingAny(words), containing(words)
+     *  words.size: 0, 1, > 1
+     *  matching tweets: 0, 1, > 1
+     *  word repeated within one tweet, word matched by several query words
+     *  words in different case, words attached to punctuation
+     *  query words that are not letter runs
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+    private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "Rivest talk in 30 minutes #hype talk", d1);
+    private static final Tweet tweet3 = new Tweet(3, "bbitdiddle", "to be or not to be", d1);
+
+    private static final List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3);
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testPostingsSortedAndDistinct() {
+        TweetIndex index = new TweetIndex(tweets);
+
+        assertArrayEquals(new int[] { 0, 1 }, index.postings("talk"));
+        assertArrayEquals(new int[] { 0, 2 }, index.postings("TO"));
+        assertArrayEquals(new int[] { 1 }, index.postings("hype"));
+        assertArrayEquals(new int[] { 0 }, index.postings("much"));
+        assertArrayEquals(new int[0], index.postings("obama"));
+    }
+
+    @Test
+    public void testContainingAnyUnion() {
+        TweetIndex index = new TweetIndex(tweets);
+
+        assertArrayEquals(new int[] { 0, 1, 2 }, index.containingAny(Arrays.asList("be", "talk", "Rivest")));
+        assertArrayEquals(new int[0], index.containingAny(Collections.<String>emptyList()));
+        assertArrayEquals(new int[0], index.containingAny(Arrays.asList("#hype", "30")));
+    }
+
+    @Test
+    public void testContainingEachTweetOnce() {
+        TweetIndex index = new TweetIndex(tweets);
+        List<Tweet> containing = index.containing(Arrays.asList("talk", "rivest"));
+
+        assertEquals("expected each tweet once, in order", Arrays.asList(tweet1, tweet2), containing);
+    }
+
+    @Test
+    public void testAddAssignsOrdinals() {
+        TweetIndex index = new TweetIndex();
+
+        assertEquals(0, index.add(tweet3));
+        assertEquals(1, index.add(tweet1));
+        assertEquals(2, index.size());
+        assertEquals(tweet1, index.get(1));
+        assertEquals(Arrays.asList(tweet3, tweet1), index.containing(Arrays.asList("to")));
+    }
+}
@@ -0,0 +1,178 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class TweetPipelineTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for run(source)
+     *  source: empty, many tweets, throws partway through
+     *  extractors: 1, > 1
+     *  rankEvery: divides the tweet count, doesn't
+     *  duplicates: none, repeated tweets dropped
+     *  listener: fast, blocks (the source must be throttled, and rankings
+     *  must arrive before the source is exhausted)
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    private static List<Tweet> randomTweets(int count) {
+        Random random = new Random(6005);
+        List<Tweet> tweets = new ArrayList<Tweet>();
+        for (int i = 0; i < count; i++) {
+            String text = "@user" + random.nextInt(50) + " and @USER" + random.nextInt(10);
+            tweets.add(new Tweet(i, "user" + random.nextInt(100), text, d1));
+        }
+        return tweets;
+    }
+
+    /*
+     * Iterator over count random tweets that counts how many were taken.
+     */
+    private static class CountingSource implements Iterator<Tweet> {
+        private final List<Tweet> tweets;
+        private final AtomicInteger taken = new AtomicInteger();
+
+        CountingSource(int count) {
+            this.tweets = randomTweets(count);
+        }
+
+        @Override public boolean hasNext() {
+            return taken.get() < tweets.size();
+        }
+
+        @Override public Tweet next() {
+            return tweets.get(taken.getAndIncrement());
+        }
+    }
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmpty() throws InterruptedException {
+        List<Long> counts = new ArrayList<Long>();
+        TweetPipeline pipeline = new TweetPipeline(4, 2, 3, 10, (influencers, tweets) -> counts.add(tweets));
+
+        IncrementalFollowsGraph graph = pipeline.run(new ArrayList<Tweet>().iterator());
+
+        assertTrue(graph.followsGraph().isEmpty());
+        assertEquals(Arrays.asList(0L), counts);
+    }
+
+    @Test
+    public void testSameAsSequential() throws InterruptedException {
+        List<Tweet> tweets = randomTweets(5000);
+        IncrementalFollowsGraph expected = new IncrementalFollowsGraph();
+        expected.acceptAll(tweets);
+
+        for (int extractors : new int[] { 1, 4 }) {
+            List<Long> counts = new ArrayList<Long>();
+            List<List<String>> rankings = new ArrayList<List<String>>();
+            TweetPipeline pipeline = new TweetPipeline(16, extractors, 5, 1500, (influencers, count) -> {
+                counts.add(count);
+                rankings.add(influencers);
+            });
+
+            IncrementalFollowsGraph graph = pipeline.run(tweets.iterator());
+
+            assertEquals(expected.followsGraph(), graph.followsGraph());
+            assertEquals(Arrays.asList(1500L, 3000L, 4500L, 5000L), counts);
+            assertEquals(expected.influencers(5), rankings.get(rankings.size() - 1));
+        }
+    }
+
+    @Test
+    public void testDropsRepeatedTweets() throws InterruptedException {
+        List<Tweet> tweets = randomTweets(1000);
+        List<Tweet> overlapping = new ArrayList<Tweet>(tweets.subList(0, 600));
+        overlapping.addAll(tweets.subList(400, 1000));
+        ExpiringIdFilter duplicates = new ExpiringIdFilter(Duration.ofHours(1), 6, 2000);
+        List<Long> counts = new ArrayList<Long>();
+
+        new TweetPipeline(16, 2, 5, 10000, (influencers, count) -> counts.add(count), duplicates)
+                .run(overlapping.iterator());
+
+        assertEquals(Arrays.asList(1000L), counts);
+    }
+
+    @Test
+    public void testBackpressure() throws InterruptedException {
+        final int bufferSize = 8;
+        final int extractors = 2;
+        CountingSource source = new CountingSource(10000);
+        CountDownLatch firstRanking = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TweetPipeline pipeline = new TweetPipeline(bufferSize, extractors, 3, 1, (influencers, count) -> {
+            firstRanking.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ie) {
+                throw new RuntimeException(ie);
+            }
+        });
+        AtomicReference<IncrementalFollowsGraph> result = new AtomicReference<IncrementalFollowsGraph>();
+        Thread runner = new Thread(() -> {
+            try {
+                result.set(pipeline.run(source));
+            } catch (InterruptedException ie) {
+                throw new RuntimeException(ie);
+            }
+        });
+        runner.start();
+
+        firstRanking.await();
+        int taken;
+        do {
+            taken = source.taken.get();
+            Thread.sleep(100);
+        } while (source.taken.get() != taken);
+        // one tweet ranked, two full queues, one in each extractor's hands, one in the source's
+        assertTrue("source ran ahead: " + taken, taken <= 1 + 2 * bufferSize + extractors + 1);
+        assertTrue(source.hasNext());
+
+        release.countDown();
+        runner.join();
+        assertEquals(10000, source.taken.get());
+        assertNotNull(result.get());
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void testSourceFailure() throws InterruptedException {
+        Iterator<Tweet> failing = new Iterator<Tweet>() {
+            private int count;
+
+            @Override public boolean hasNext() {
+                return true;
+            }
+
+            @Override public Tweet next() {
+                if (++count > 100) {
+                    throw new IllegalStateException("source broke");
+                }
+                return new Tweet(count, "alyssa", "@ben", d1);
+            }
+        };
+        new TweetPipeline(4, 2, 3, 10, (influencers, tweets) -> { }).run(failing);
+    }
+}
@@ -0,0 +1,111 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class TweetStoreTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for appendAll(batch)
+     *  batch entirely after, before, interleaved with the stored tweets
+     *  batch with equal timestamps, batch.size: 0, 1, > 1
+     *
+     * Partition for inTimespan(timespan) -> ordinals
+     *  matches: 0, 1, > 1; returned in timestamp order, not ordinal order
+     *  tweets exactly on the endpoints, tweets within the same millisecond
+     *  as an endpoint but outside the timespan
+     *
+     * Partition for getTimespan()
+     *  store.size: 1, > 1
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
+    private static final Instant d3 = Instant.parse("2016-02-17T12:00:00Z");
+    private static final Instant d4 = Instant.parse("2016-02-17T13:00:00Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "alyssa", "one", d1);
+    private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "two", d2);
+    private static final Tweet tweet3 = new Tweet(3, "alyssa", "three", d3);
+    private static final Tweet tweet4 = new Tweet(4, "bbitdiddle", "four", d4);
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testGetTimespanSingleTweet() {
+        TweetStore store = new TweetStore(Arrays.asList(tweet2));
+
+        assertEquals(new Timespan(d2, d2), store.getTimespan());
+    }
+
+    @Test
+    public void testAppendInterleaved() {
+        TweetStore store = new TweetStore(Arrays.asList(tweet3, tweet1));
+        store.appendAll(Arrays.asList(tweet4, tweet2));
+        store.appendAll(Collections.<Tweet>emptyList());
+
+        assertEquals(4, store.size());
+        assertEquals(tweet4, store.get(2));
+        assertEquals(new Timespan(d1, d4), store.getTimespan());
+        assertArrayEquals(new int[] { 1, 3, 0, 2 }, store.inTimespan(new Timespan(d1, d4)));
+        assertArrayEquals(new int[] { 3, 0 }, store.inTimespan(new Timespan(d2, d3)));
+    }
+
+    @Test
+    public void testInTimespanEmpty() {
+        TweetStore store = new TweetStore(Arrays.asList(tweet1, tweet4));
+
+        assertArrayEquals(new int[0], store.inTimespan(new Timespan(d2, d3)));
+        assertArrayEquals(new int[0], new TweetStore().inTimespan(new Timespan(d2, d3)));
+    }
+
+    @Test
+    public void testInTimespanEqualTimestamps() {
+        Tweet same = new Tweet(5, "ben", "same time as two", d2);
+        TweetStore store = new TweetStore(Arrays.asList(tweet2, tweet1));
+        assertEquals(2, store.append(same));
+
+        assertArrayEquals(new int[] { 0, 2 }, store.inTimespan(new Timespan(d2, d2)));
+    }
+
+    @Test
+    public void testAppendEqualAndSubMillisecondTimestamps() {
+        Tweet late = new Tweet(6, "ben", "late", d2.plusNanos(900));
+        Tweet early = new Tweet(7, "ben", "early", d2.plusNanos(100));
+        Tweet same = new Tweet(8, "ben", "same time as early", d2.plusNanos(100));
+        TweetStore store = new TweetStore(Arrays.asList(late, tweet3, early, same, tweet1, tweet2));
+
+        assertArrayEquals(new int[] { 4, 5, 2, 3, 0, 1 }, store.inTimespan(new Timespan(d1, d3)));
+        assertEquals(new Timespan(d1, d3), store.getTimespan());
+    }
+
+    @Test
+    public void testInTimespanSubMillisecondEndpoints() {
+        Tweet early = new Tweet(6, "ben", "early", d2.plusNanos(100));
+        Tweet late = new Tweet(7, "ben", "late", d2.plusNanos(900));
+        TweetStore store = new TweetStore(Arrays.asList(late, early));
+
+        assertArrayEquals(new int[] { 1 }, store.inTimespan(new Timespan(d2, d2.plusNanos(500))));
+        assertArrayEquals(new int[] { 0 }, store.inTimespan(new Timespan(d2.plusNanos(500), d3)));
+    }
+
+    @Test
+    public void testTweetsAt() {
+        TweetStore store = new TweetStore(Arrays.asList(tweet1, tweet2, tweet3));
+
+        assertEquals(Arrays.asList(tweet3, tweet1), store.tweetsAt(new int[] { 2, 0 }));
+    }
+}
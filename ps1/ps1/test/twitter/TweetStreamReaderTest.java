@@ -0,0 +1,102 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.time.Instant;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.json.JsonException;
+
+import org.junit.Test;
+
+public class TweetStreamReaderTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for TweetStreamReader over a JSON array -> tweets
+     *  array size: 0, 1, > 1
+     *  screen name: nested under "user", flat "user.screen_name" key
+     *  tweets containing other nested objects and arrays, including
+     *  keys named like the wanted fields at deeper levels
+     *  input that is not an array, tweet missing a field
+     */
+
+    private static final String TWEET1 = "{\"id\":1,\"created_at\":\"Wed Feb 17 10:00:00 +0000 2016\","
+            + "\"text\":\"rivest talk in 30 minutes\","
+            + "\"entities\":{\"user_mentions\":[{\"id\":7,\"screen_name\":\"bogus\"}]},"
+            + "\"user\":{\"id\":99,\"screen_name\":\"alyssa\",\"entities\":{\"text\":\"bio\"}},"
+            + "\"retweeted\":false,\"place\":null}";
+    private static final String TWEET2 = "{\"user.screen_name\":\"bbitdiddle\",\"id\":2,"
+            + "\"text\":\"@alyssa see you\",\"coordinates\":[1.5,[2,3]],"
+            + "\"created_at\":\"Wed Feb 17 11:00:00 +0000 2016\"}";
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmptyArray() {
+        TweetStreamReader reader = new TweetStreamReader(new StringReader("[]"));
+
+        assertFalse("expected no tweets", reader.hasNext());
+    }
+
+    @Test
+    public void testMultipleTweets() {
+        TweetStreamReader reader = new TweetStreamReader(new StringReader("[" + TWEET1 + "," + TWEET2 + "]"));
+
+        assertTrue("expected first tweet", reader.hasNext());
+        Tweet first = reader.next();
+        assertEquals(1, first.getId());
+        assertEquals("alyssa", first.getAuthor());
+        assertEquals("rivest talk in 30 minutes", first.getText());
+        assertEquals(Instant.parse("2016-02-17T10:00:00Z"), first.getTimestamp());
+
+        Tweet second = reader.next();
+        assertEquals(2, second.getId());
+        assertEquals("bbitdiddle", second.getAuthor());
+        assertEquals("@alyssa see you", second.getText());
+        assertEquals(Instant.parse("2016-02-17T11:00:00Z"), second.getTimestamp());
+
+        assertFalse("expected end of array", reader.hasNext());
+        reader.close();
+    }
+
+    @Test
+    public void testStreamPreservesOrder() {
+        try (Stream<Tweet> tweets = TweetStreamReader.stream(new StringReader("[" + TWEET2 + "," + TWEET1 + "]"))) {
+            List<Long> ids = tweets.map(Tweet::getId).collect(Collectors.toList());
+
+            assertEquals("expected input order", 2, ids.size());
+            assertEquals(Long.valueOf(2), ids.get(0));
+            assertEquals(Long.valueOf(1), ids.get(1));
+        }
+    }
+
+    @Test(expected=NoSuchElementException.class)
+    public void testNextPastEnd() {
+        TweetStreamReader reader = new TweetStreamReader(new StringReader("[" + TWEET1 + "]"));
+        reader.next();
+        reader.next();
+    }
+
+    @Test(expected=JsonException.class)
+    public void testNotAnArray() {
+        new TweetStreamReader(new StringReader(TWEET1));
+    }
+
+    @Test(expected=JsonException.class)
+    public void testMissingField() {
+        TweetStreamReader reader = new TweetStreamReader(new StringReader("[{\"id\":3,\"text\":\"hi\"}]"));
+        reader.next();
+    }
+}
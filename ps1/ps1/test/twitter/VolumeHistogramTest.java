@@ -0,0 +1,137 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import twitter.VolumeHistogram.Series;
+
+public class VolumeHistogramTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for accept(tweet)
+     *  minute: first ever, inside the covered minutes, before them, far
+     *  after them (growth in each direction), decades apart (sparse days),
+     *  too far apart to cover
+     *  mentions: none, one, repeated user in different case, several users
+     *
+     * Partition for count(series, timespan), total(series)
+     *  series: TWEETS, MENTIONS
+     *  histogram: empty, nonempty
+     *  timespan: inside one minute, across minutes, partly or wholly outside
+     *  the covered minutes
+     *  random tweets and timespans: same as Filter.inTimespan over whole minutes
+     *
+     * Partition for rollup(series, unit, timespan)
+     *  unit: MINUTES, HOURS, DAYS, unsupported
+     *  timespan: one unit, several units, before the epoch
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmpty() {
+        VolumeHistogram histogram = new VolumeHistogram();
+        Timespan hour = new Timespan(d1, d1.plusSeconds(3600));
+
+        assertEquals(0, histogram.count(Series.TWEETS, hour));
+        assertEquals(0, histogram.total(Series.MENTIONS));
+        assertArrayEquals(new long[] { 0, 0 }, histogram.rollup(Series.TWEETS, ChronoUnit.HOURS, hour));
+    }
+
+    @Test
+    public void testCountsAndMentions() {
+        VolumeHistogram histogram = new VolumeHistogram();
+        histogram.accept(new Tweet(1, "alyssa", "@ben and @BEN and @carol", d1.plusSeconds(30)));
+        histogram.accept(new Tweet(2, "ben", "no mentions", d1.plusSeconds(59)));
+        histogram.accept(new Tweet(3, "carol", "@alyssa", d1.plusSeconds(60)));
+
+        assertEquals(3, histogram.total(Series.TWEETS));
+        assertEquals(3, histogram.total(Series.MENTIONS));
+        Timespan firstMinute = new Timespan(d1.plusSeconds(10), d1.plusSeconds(20));
+        assertEquals(2, histogram.count(Series.TWEETS, firstMinute));
+        assertEquals(2, histogram.count(Series.MENTIONS, firstMinute));
+        assertEquals(3, histogram.count(Series.TWEETS, new Timespan(d1, d1.plusSeconds(60))));
+        assertEquals(0, histogram.count(Series.TWEETS, new Timespan(d1.minusSeconds(600), d1.minusSeconds(1))));
+        assertArrayEquals(new long[] { 2, 1, 0 },
+                histogram.rollup(Series.TWEETS, ChronoUnit.MINUTES, new Timespan(d1, d1.plusSeconds(150))));
+    }
+
+    @Test
+    public void testGrowsBothWays() {
+        VolumeHistogram histogram = new VolumeHistogram();
+        histogram.accept(new Tweet(1, "alyssa", "middle", d1));
+        histogram.accept(new Tweet(2, "alyssa", "a year later", d1.plus(365, ChronoUnit.DAYS)));
+        histogram.accept(new Tweet(3, "alyssa", "before the epoch", Instant.parse("1969-12-31T23:59:30Z")));
+
+        assertEquals(1, histogram.count(Series.TWEETS, new Timespan(d1, d1)));
+        assertEquals(1, histogram.count(Series.TWEETS,
+                new Timespan(d1.plus(365, ChronoUnit.DAYS), d1.plus(366, ChronoUnit.DAYS))));
+        assertArrayEquals(new long[] { 1, 0 }, histogram.rollup(Series.TWEETS, ChronoUnit.DAYS,
+                new Timespan(Instant.parse("1969-12-31T00:00:00Z"), Instant.EPOCH)));
+        assertEquals(3, histogram.count(Series.TWEETS,
+                new Timespan(Instant.parse("1969-01-01T00:00:00Z"), d1.plus(400, ChronoUnit.DAYS))));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testTooWideSpan() {
+        VolumeHistogram histogram = new VolumeHistogram();
+        histogram.accept(new Tweet(1, "alyssa", "now", d1));
+        histogram.accept(new Tweet(2, "alyssa", "long ago", Instant.parse("-1000-01-01T00:00:00Z")));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testUnsupportedUnit() {
+        new VolumeHistogram().rollup(Series.TWEETS, ChronoUnit.WEEKS, new Timespan(d1, d1));
+    }
+
+    @Test
+    public void testSameAsFilter() {
+        Random random = new Random(6005);
+        List<Tweet> tweets = new ArrayList<Tweet>();
+        VolumeHistogram histogram = new VolumeHistogram();
+        for (int i = 0; i < 3000; i++) {
+            Tweet tweet = new Tweet(i, "alyssa", random.nextBoolean() ? "@ben" : "hi",
+                    d1.plusSeconds(random.nextInt(3 * 24 * 3600) - 24 * 3600));
+            tweets.add(tweet);
+            histogram.accept(tweet);
+        }
+        for (int i = 0; i < 200; i++) {
+            long startMinute = d1.getEpochSecond() / 60 - 1500 + random.nextInt(5000);
+            long endMinute = startMinute + random.nextInt(3000);
+            Timespan minutes = new Timespan(Instant.ofEpochSecond(startMinute * 60),
+                    Instant.ofEpochSecond(endMinute * 60 + 59));
+            List<Tweet> expected = Filter.inTimespan(tweets, minutes);
+            assertEquals(expected.size(), histogram.count(Series.TWEETS, minutes));
+            assertEquals(Filter.containing(expected, Arrays.asList("ben")).size(),
+                    histogram.count(Series.MENTIONS, minutes));
+        }
+
+        Timespan days = new Timespan(d1.minus(2, ChronoUnit.DAYS), d1.plus(2, ChronoUnit.DAYS));
+        long[] hours = histogram.rollup(Series.TWEETS, ChronoUnit.HOURS, days);
+        long[] byDay = histogram.rollup(Series.TWEETS, ChronoUnit.DAYS, days);
+        assertEquals(97, hours.length);
+        assertEquals(5, byDay.length);
+        assertEquals(3000, Arrays.stream(hours).sum());
+        assertEquals(3000, Arrays.stream(byDay).sum());
+        assertEquals(Filter.inTimespan(tweets, new Timespan(Instant.parse("2016-02-17T00:00:00Z"),
+                Instant.parse("2016-02-17T23:59:59.999Z"))).size(), byDay[2]);
+    }
+}
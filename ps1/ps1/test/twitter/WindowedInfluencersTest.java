@@ -0,0 +1,186 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class WindowedInfluencersTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for accept(tweet), advanceTo(time)
+     *  tweet: inside the window, later than any seen (moves window),
+     *         earlier than the window (ignored), out of order within the window
+     *  mentions: none, self-mention, mixed case, repeated in one tweet,
+     *            same edge in several tweets with different expiries
+     *  time: earlier than latest seen, on an expiry, after every expiry
+     *
+     * Partition for followerCount(user), influencers(k)
+     *  users with 0, 1, > 1 followers; ties in follower count
+     *  k: 0, less than, cutting through a tie, more than the users with followers
+     *  counts rising and falling; checked against SocialNetwork over the
+     *  tweets in the window
+     *
+     * Partition for trackedUsers()
+     *  users with no follows evidence, users whose evidence all expired,
+     *  a long stream of new users: stays bounded by the window
+     */
+
+    private static final Instant d0 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    private static Tweet tweet(long id, String author, String text, long minutes) {
+        return new Tweet(id, author, text, d0.plusSeconds(60 * minutes));
+    }
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testEmptyWindow() {
+        new WindowedInfluencers(Duration.ZERO);
+    }
+
+    @Test
+    public void testEmpty() {
+        WindowedInfluencers board = new WindowedInfluencers(HOUR);
+        board.accept(tweet(1, "mike", "no mentions here @mike", 0));
+
+        assertEquals(0, board.followerCount("mike"));
+        assertEquals(Collections.emptyList(), board.influencers(5));
+    }
+
+    @Test
+    public void testCountsAndTies() {
+        WindowedInfluencers board = new WindowedInfluencers(HOUR);
+        board.accept(tweet(1, "jane", "if @Mike beats @Andy, @Mike has to face me", 0));
+        board.accept(tweet(2, "andy", "come on @jane, do an @andy, if @mike beats you", 1));
+        board.accept(tweet(3, "mike", "Finally won one! SUCK IT @ANDY", 2));
+
+        assertEquals(2, board.followerCount("MIKE"));
+        assertEquals(2, board.followerCount("andy"));
+        assertEquals(1, board.followerCount("jane"));
+        assertEquals(0, board.followerCount("bert"));
+        assertEquals(Arrays.asList("andy", "mike", "jane"), board.influencers(10));
+        assertEquals(Arrays.asList("andy"), board.influencers(1));
+        assertEquals(Collections.emptyList(), board.influencers(0));
+    }
+
+    @Test
+    public void testExpiry() {
+        WindowedInfluencers board = new WindowedInfluencers(HOUR);
+        board.accept(tweet(1, "jane", "@mike", 0));
+        board.accept(tweet(2, "jane", "@mike again", 30));
+        board.accept(tweet(3, "andy", "@mike", 40));
+        assertEquals(2, board.followerCount("mike"));
+
+        board.advanceTo(d0.plus(HOUR));
+        assertEquals("jane's later mention keeps the edge", 2, board.followerCount("mike"));
+
+        board.advanceTo(d0.plus(HOUR).plusSeconds(30 * 60));
+        assertEquals(1, board.followerCount("mike"));
+
+        board.advanceTo(d0);
+        assertEquals("time never goes back", 1, board.followerCount("mike"));
+
+        board.accept(tweet(4, "bert", "@mike too late", 20));
+        assertEquals(1, board.followerCount("mike"));
+
+        board.accept(tweet(5, "bert", "@jane out of order", 80));
+        assertEquals(1, board.followerCount("jane"));
+
+        board.advanceTo(d0.plus(HOUR.multipliedBy(3)));
+        assertEquals(0, board.followerCount("mike"));
+        assertEquals(0, board.followerCount("jane"));
+        assertEquals(Collections.emptyList(), board.influencers(3));
+    }
+
+    @Test
+    public void testMatchesSocialNetworkOverWindow() {
+        Random random = new Random(6005);
+        String[] names = new String[40];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "user" + i;
+        }
+        WindowedInfluencers board = new WindowedInfluencers(Duration.ofMinutes(10));
+        List<Tweet> all = new ArrayList<Tweet>();
+        long latest = 0;
+        for (int i = 0; i < 3000; i++) {
+            // mostly in order, sometimes a few minutes late
+            long seconds = latest + random.nextInt(20) - (random.nextInt(10) == 0 ? 300 : 0);
+            latest = Math.max(latest, seconds);
+            StringBuilder text = new StringBuilder();
+            for (int m = random.nextInt(4); m > 0; m--) {
+                String name = names[random.nextInt(names.length)];
+                text.append(" @").append(random.nextBoolean() ? name : name.toUpperCase());
+            }
+            Tweet tweet = new Tweet(i, names[random.nextInt(names.length)], text.toString(),
+                    d0.plusSeconds(seconds));
+            all.add(tweet);
+            board.accept(tweet);
+
+            if (i % 50 == 0) {
+                Instant end = d0.plusSeconds(latest);
+                List<Tweet> window = new ArrayList<Tweet>();
+                for (Tweet seen : all) {
+                    if (seen.getTimestamp().isAfter(end.minus(Duration.ofMinutes(10)))) {
+                        window.add(seen);
+                    }
+                }
+                Map<String, Set<String>> graph = SocialNetwork.guessFollowsGraph(window);
+                List<String> expected = new ArrayList<String>();
+                for (String user : SocialNetwork.influencers(graph)) {
+                    int followers = 0;
+                    for (Set<String> follows : graph.values()) {
+                        followers += follows.contains(user) ? 1 : 0;
+                    }
+                    assertEquals(user, followers, board.followerCount(user));
+                    if (followers > 0) {
+                        expected.add(user);
+                    }
+                }
+                assertEquals(expected, board.influencers(names.length));
+                int k = random.nextInt(10);
+                assertEquals(expected.subList(0, Math.min(k, expected.size())), board.influencers(k));
+            }
+        }
+    }
+
+    @Test
+    public void testReleasesExpiredUsers() {
+        WindowedInfluencers board = new WindowedInfluencers(HOUR);
+        board.accept(tweet(1, "mike", "no mentions, only @MIKE", 0));
+        assertEquals(0, board.trackedUsers());
+
+        board.accept(tweet(2, "jane", "@mike", 0));
+        assertEquals(2, board.trackedUsers());
+
+        board.advanceTo(d0.plus(HOUR));
+        assertEquals(0, board.trackedUsers());
+        assertEquals(0, board.followerCount("mike"));
+
+        // a day of new users every minute only ever holds the last hour's
+        for (int minute = 0; minute < 24 * 60; minute++) {
+            board.accept(tweet(minute, "fan" + minute, "@star" + minute + " @star", 60 + minute));
+            assertTrue(board.trackedUsers() <= 2 * 60 + 1);
+        }
+        assertEquals(60, board.followerCount("star"));
+        assertEquals(Arrays.asList("star", "star1380"), board.influencers(2));
+    }
+}
@@ -0,0 +1,128 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class WordTokenizerTest {
+
+    /*
+     * Testing strategy
+     *
+     * Partition for reset(text), next(), start(), end(), position(), hash()
+     *  text: empty, only spaces, one word, many words
+     *  piece: letters only, letters after punctuation, letters then
+     *  punctuation then more letters, no letters
+     *  spaces: single, repeated, leading, trailing
+     *  text type: String, CharBuffer
+     *  tokenizer: fresh, reset after a previous text
+     *  random texts: same words as splitting on " " and taking the first
+     *  [a-zA-Z]+ of each piece, the way Filter.containing used to
+     *
+     * Partition for matches(lowerWord)
+     *  lowerWord: equal ignoring case, different length, same length but different
+     */
+
+    private static final Pattern LETTERS = Pattern.compile("[a-zA-Z]+");
+
+    /*
+     * The words of text as the regex tokenizer found them.
+     */
+    private static List<String> regexWords(String text) {
+        List<String> words = new ArrayList<String>();
+        for (String piece : text.split(" ")) {
+            Matcher matcher = LETTERS.matcher(piece);
+            if (matcher.find()) {
+                words.add(matcher.group().toLowerCase());
+            }
+        }
+        return words;
+    }
+
+    private static List<String> words(WordTokenizer tokens, CharSequence text) {
+        List<String> words = new ArrayList<String>();
+        tokens.reset(text);
+        while (tokens.next()) {
+            assertEquals(words.size(), tokens.position());
+            String word = text.subSequence(tokens.start(), tokens.end()).toString();
+            assertEquals(SymbolTable.foldedHash(text, tokens.start(), tokens.end()), tokens.hash());
+            assertTrue(tokens.matches(word.toLowerCase()));
+            words.add(word.toLowerCase());
+        }
+        assertFalse(tokens.next());
+        return words;
+    }
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmpty() {
+        WordTokenizer tokens = new WordTokenizer();
+
+        assertFalse(tokens.next());
+        assertEquals(Arrays.asList(), words(tokens, ""));
+        assertEquals(Arrays.asList(), words(tokens, "   "));
+        assertEquals(Arrays.asList(), words(tokens, "123 #! ..."));
+    }
+
+    @Test
+    public void testPieces() {
+        WordTokenizer tokens = new WordTokenizer();
+
+        assertEquals(Arrays.asList("rivest", "talk", "in", "minutes", "hype"),
+                words(tokens, "  Rivest talk(s) in 30 #minutes!  @@hype-now "));
+        assertEquals(Arrays.asList("obama"), words(tokens, "OBAMA"));
+    }
+
+    @Test
+    public void testBounds() {
+        WordTokenizer tokens = new WordTokenizer().reset("a1 #Bc");
+
+        assertTrue(tokens.next());
+        assertEquals(0, tokens.start());
+        assertEquals(1, tokens.end());
+        assertTrue(tokens.next());
+        assertEquals(4, tokens.start());
+        assertEquals(6, tokens.end());
+        assertEquals(1, tokens.position());
+        assertTrue(tokens.matches("bc"));
+        assertFalse(tokens.matches("bd"));
+        assertFalse(tokens.matches("b"));
+        assertFalse(tokens.next());
+    }
+
+    @Test
+    public void testCharBuffer() {
+        CharBuffer buffer = CharBuffer.wrap("xx Hello, world".toCharArray(), 3, 12);
+
+        assertEquals(Arrays.asList("hello", "world"), words(new WordTokenizer(), buffer));
+    }
+
+    @Test
+    public void testSameAsRegex() {
+        Random random = new Random(6005);
+        String alphabet = "aBz  .@#1-";
+        WordTokenizer tokens = new WordTokenizer();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int j = random.nextInt(30); j > 0; j--) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertEquals(text.toString(), regexWords(text.toString()), words(tokens, text.toString()));
+        }
+    }
+}
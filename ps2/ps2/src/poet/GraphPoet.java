@@ -5,8 +5,10 @@ package poet;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Scanner;
 import java.util.Set;
 
 import graph.Graph;
@@ -75,26 +77,25 @@ public class GraphPoet {
      * @throws IOException if the corpus file cannot be found or read
      */
     public GraphPoet(File corpus) throws IOException {
-        final Scanner scanner = new Scanner(corpus);
-        String current;
-        String prev;
+        final String text = new String(Files.readAllBytes(corpus.toPath()), Charset.defaultCharset());
+        final WordTokenizer tokens = new WordTokenizer().reset(text);
+        final WordTable words = new WordTable();
+        // count adjacencies first, so that each edge is set in the graph once
+        final Map<String, Map<String, Integer>> adjacencies = new HashMap<>();
+        String prev = null;
 
-        if (!scanner.hasNext()) {
-            scanner.close();
-            return;
-        }
-
-        current = scanner.next().toLowerCase();
-        graph.add(current);
-
-        while (scanner.hasNext()) {
+        while (tokens.next()) {
+            final String current = words.intern(tokens);
+            if (prev == null) {
+                graph.add(current);
+            } else {
+                adjacencies.computeIfAbsent(prev, word -> new HashMap<>()).merge(current, 1, Integer::sum);
+            }
             prev = current;
-            current = scanner.next().toLowerCase();
-            int previousWeight = graph.targets(prev).getOrDefault(current, 0);
-            graph.set(prev, current, previousWeight+1);
         }
 
-        scanner.close();
+        adjacencies.forEach((source, targets) ->
+                targets.forEach((target, weight) -> graph.set(source, target, weight)));
     }
     
     public void checkRep() {
@@ -118,19 +119,21 @@ public class GraphPoet {
      * @return poem (as described above)
      */
     public String poem(String input) {
-        final String[] words = input.trim().split("\\s+");
+        final WordTokenizer tokens = new WordTokenizer().reset(input);
         final StringBuilder poemBuilder = new StringBuilder();
+        String prev = null;
 
-        if (words.length > 0) {
-            poemBuilder.append(words[0]);
-        }
-
-        for (int i = 0; i+1 < words.length; i++) {
-            String bridgeWord = getMaximalBridgeWord(words[i].toLowerCase(), words[i+1].toLowerCase());
-            if (!bridgeWord.equals("")) {
-                poemBuilder.append(" " + bridgeWord);
+        while (tokens.next()) {
+            final String current = tokens.lowerCase();
+            if (prev != null) {
+                String bridgeWord = getMaximalBridgeWord(prev, current);
+                if (!bridgeWord.equals("")) {
+                    poemBuilder.append(' ').append(bridgeWord);
+                }
+                poemBuilder.append(' ');
             }
-            poemBuilder.append(" " + words[i+1]);
+            poemBuilder.append(input, tokens.start(), tokens.end());
+            prev = current;
         }
         final String poem = poemBuilder.toString();
         return poem;
@@ -167,4 +170,64 @@ public class GraphPoet {
         return bridgeWord;
     }
 
+    /**
+     * A growing set of lower-case words, looked up by the tokens of a
+     * WordTokenizer, so that each distinct word of a corpus becomes a String
+     * once, however many times it occurs.
+     */
+    private static class WordTable {
+
+        private String[] table = new String[64];
+        private int size;
+
+        // Abstraction function:
+        //   The set of non-null words in table.
+        // Representation invariant:
+        //   table.length is a power of two, > 2 * size
+        //   the non-null words in table are distinct and lower case, and each
+        //   is reachable by linear probing from its home slot without
+        //   crossing a null slot
+        // Safety from rep exposure:
+        //   The table is private, and its words are immutable Strings.
+
+        /**
+         * @param tokens a tokenizer on a word
+         * @return the lower-case String of the current word of tokens, made
+         *         only if this is the first time the word is seen
+         */
+        String intern(WordTokenizer tokens) {
+            int slot = slotOf(tokens.hash());
+            while (table[slot] != null) {
+                if (table[slot].hashCode() == tokens.hash() && tokens.matches(table[slot])) {
+                    return table[slot];
+                }
+                slot = (slot + 1) & (table.length - 1);
+            }
+            final String word = tokens.lowerCase();
+            table[slot] = word;
+            size++;
+            if (2 * size >= table.length) {
+                final String[] old = table;
+                table = new String[old.length * 2];
+                for (String w : old) {
+                    if (w != null) {
+                        int s = slotOf(w.hashCode());
+                        while (table[s] != null) {
+                            s = (s + 1) & (table.length - 1);
+                        }
+                        table[s] = w;
+                    }
+                }
+            }
+            return word;
+        }
+
+        /**
+         * @return the home slot of a word with this hash code
+         */
+        private int slotOf(int hash) {
+            return (hash ^ (hash >>> 16)) & (table.length - 1);
+        }
+    }
+
 }
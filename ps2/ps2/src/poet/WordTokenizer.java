@@ -0,0 +1,125 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package poet;
+
+/**
+ * A reusable cursor over the words of a text, in the sense of GraphPoet:
+ * non-empty runs of non-whitespace characters, delimited by whitespace or the
+ * ends of the text.
+ *
+ * <p>The tokenizer reports each word as a range of the text together with a
+ * hash of the word lower-cased, without creating any substrings. The hash is
+ * the String hash code of the lower-cased word, so a caller can look the word
+ * up before deciding whether it needs a String for it. The text may be any
+ * CharSequence, such as a String or a CharBuffer.
+ *
+ * <p>A tokenizer is not thread-safe, but it can be reset to a new text any
+ * number of times.
+ */
+public class WordTokenizer {
+
+    private CharSequence text = "";
+    private int start;
+    private int end;
+    private int hash;
+
+    // Abstraction function:
+    //   A cursor over the words of text, on the word text[start, end) if
+    //   start < end, and otherwise before the first word or past the last.
+    // Representation invariant:
+    //   0 <= start <= end <= text.length()
+    //   if start < end, text[start, end) is a word and hash is the hash code
+    //   of it lower-cased
+    // Safety from rep exposure:
+    //   All fields are private, and text is only read.
+
+    /**
+     * Start over on a text.
+     *
+     * @param text text to tokenize; must not change while it is tokenized
+     * @return this tokenizer, before the first word of text
+     */
+    public WordTokenizer reset(CharSequence text) {
+        this.text = text;
+        this.start = 0;
+        this.end = 0;
+        this.hash = 0;
+        return this;
+    }
+
+    /**
+     * Move to the next word.
+     *
+     * @return true if there was another word, false if the text is exhausted
+     */
+    public boolean next() {
+        final int length = text.length();
+        int i = end;
+        while (i < length && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        start = i;
+        int wordHash = 0;
+        char c;
+        while (i < length && !Character.isWhitespace(c = text.charAt(i))) {
+            wordHash = 31 * wordHash + Character.toLowerCase(c);
+            i++;
+        }
+        end = i;
+        hash = wordHash;
+        return start < end;
+    }
+
+    /**
+     * @return index of the first character of the current word
+     */
+    public int start() {
+        return start;
+    }
+
+    /**
+     * @return index one past the last character of the current word
+     */
+    public int end() {
+        return end;
+    }
+
+    /**
+     * @return hash code of the current word with each character lower-cased
+     *         by Character.toLowerCase, as a String
+     */
+    public int hash() {
+        return hash;
+    }
+
+    /**
+     * @param lowerWord a lower-case word
+     * @return true iff the current word, with each character lower-cased by
+     *         Character.toLowerCase, equals lowerWord
+     */
+    public boolean matches(String lowerWord) {
+        if (lowerWord.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < lowerWord.length(); i++) {
+            if (lowerWord.charAt(i) != Character.toLowerCase(text.charAt(start + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the current word with each character lower-cased by
+     *         Character.toLowerCase
+     */
+    public String lowerCase() {
+        final char[] word = new char[end - start];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = Character.toLowerCase(text.charAt(start + i));
+        }
+        return new String(word);
+    }
+
+}
@@ -0,0 +1,113 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package poet;
+
+import static org.junit.Assert.*;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+
+import org.junit.Test;
+
+/**
+ * Tests for WordTokenizer.
+ */
+public class WordTokenizerTest {
+
+    // Testing strategy
+    //   text: empty, only whitespace, one word, many words
+    //   whitespace: space, tab, newline, repeated, leading, trailing
+    //   case: lower, upper, mixed, non-ASCII
+    //   text type: String, CharBuffer
+    //   tokenizer: fresh, reset after a previous text
+    //   random texts: same words as java.util.Scanner and toLowerCase(),
+    //     the way GraphPoet used to read its corpus
+    //   matches: equal word, different length, same length but different
+
+    private static List<String> scannerWords(String text) {
+        final List<String> words = new ArrayList<>();
+        final Scanner scanner = new Scanner(text);
+        while (scanner.hasNext()) {
+            words.add(scanner.next().toLowerCase());
+        }
+        scanner.close();
+        return words;
+    }
+
+    private static List<String> words(WordTokenizer tokens, CharSequence text) {
+        final List<String> words = new ArrayList<>();
+        tokens.reset(text);
+        while (tokens.next()) {
+            final String word = tokens.lowerCase();
+            assertEquals(word.hashCode(), tokens.hash());
+            assertTrue(tokens.matches(word));
+            assertEquals(word, text.subSequence(tokens.start(), tokens.end()).toString().toLowerCase());
+            words.add(word);
+        }
+        assertFalse(tokens.next());
+        return words;
+    }
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmpty() {
+        final WordTokenizer tokens = new WordTokenizer();
+        assertFalse(tokens.next());
+        assertEquals(Arrays.asList(), words(tokens, ""));
+        assertEquals(Arrays.asList(), words(tokens, " \t\n\r\n "));
+    }
+
+    @Test
+    public void testWords() {
+        final WordTokenizer tokens = new WordTokenizer();
+        assertEquals(Arrays.asList("hello,", "hello,", "hello,", "goodbye!"),
+                words(tokens, "Hello, HELLO, hello, goodbye!"));
+        assertEquals(Arrays.asList("test", "the", "system.", "\u00e9t\u00e9"),
+                words(tokens, "\n\tTest  the\r\nsystem.   \u00c9T\u00c9 "));
+    }
+
+    @Test
+    public void testBoundsAndMatches() {
+        final WordTokenizer tokens = new WordTokenizer().reset(" ab\tCd");
+        assertTrue(tokens.next());
+        assertEquals(1, tokens.start());
+        assertEquals(3, tokens.end());
+        assertTrue(tokens.next());
+        assertEquals(4, tokens.start());
+        assertEquals(6, tokens.end());
+        assertTrue(tokens.matches("cd"));
+        assertFalse(tokens.matches("ce"));
+        assertFalse(tokens.matches("c"));
+        assertFalse(tokens.next());
+    }
+
+    @Test
+    public void testCharBuffer() {
+        final CharBuffer buffer = CharBuffer.wrap("xx Mugar Omni".toCharArray(), 3, 10);
+        assertEquals(Arrays.asList("mugar", "omni"), words(new WordTokenizer(), buffer));
+    }
+
+    @Test
+    public void testSameAsScanner() {
+        final Random random = new Random(6005);
+        final String alphabet = "aBz!,.  \t\n\u00c9";
+        final WordTokenizer tokens = new WordTokenizer();
+        for (int i = 0; i < 2000; i++) {
+            final StringBuilder text = new StringBuilder();
+            for (int j = random.nextInt(30); j > 0; j--) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertEquals(text.toString(), scannerWords(text.toString()), words(tokens, text.toString()));
+        }
+    }
+
+}